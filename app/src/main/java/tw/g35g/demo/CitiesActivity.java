@@ -2,7 +2,6 @@ package tw.g35g.demo;
 
 
 import tw.g35g.widget.OnWheelChangedListener;
-import tw.g35g.widget.OnWheelScrollListener;
 import tw.g35g.widget.WheelView;
 import tw.g35g.widget.adapters.AbstractWheelTextAdapter;
 import tw.g35g.widget.adapters.ArrayWheelAdapter;
@@ -15,8 +14,6 @@ import android.view.ViewGroup;
 import android.widget.ImageView;
 
 public class CitiesActivity extends Activity {
-    // Scrolling flag
-    private boolean scrolling = false;
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -39,24 +36,15 @@ public class CitiesActivity extends Activity {
         
         final WheelView city = (WheelView) findViewById(R.id.city);
         city.setVisibleItems(5);
+        // keep city views when adapter is changed
+        city.setKeepRecycledViewsOnAdapterChange(true);
 
+        // cities are updated when the country wheel stops
         country.addChangingListener(new OnWheelChangedListener() {
 			public void onChanged(WheelView wheel, int oldValue, int newValue) {
-			    if (!scrolling) {
-			        updateCities(city, cities, newValue);
-			    }
+			    updateCities(city, cities, newValue);
 			}
-		});
-        
-        country.addScrollingListener( new OnWheelScrollListener() {
-            public void onScrollingStarted(WheelView wheel) {
-                scrolling = true;
-            }
-            public void onScrollingFinished(WheelView wheel) {
-                scrolling = false;
-                updateCities(city, cities, country.getCurrentItem());
-            }
-        });
+		}, WheelView.DISPATCH_SETTLED);
 
         country.setCurrentItem(1);
     }
@@ -3,6 +3,7 @@ package tw.g35g.demo;
 import java.util.Calendar;
 
 import tw.g35g.widget.OnWheelChangedListener;
+import tw.g35g.widget.WheelRecyclePool;
 import tw.g35g.widget.WheelView;
 import tw.g35g.widget.adapters.ArrayWheelAdapter;
 import tw.g35g.widget.adapters.NumericWheelAdapter;
@@ -26,6 +27,14 @@ public class DateActivity extends Activity {
         final WheelView month = (WheelView) findViewById(R.id.month);
         final WheelView year = (WheelView) findViewById(R.id.year);
         final WheelView day = (WheelView) findViewById(R.id.day);
+
+        // all the wheels use text view items, so they can share item views
+        WheelRecyclePool recyclePool = new WheelRecyclePool();
+        month.setRecyclePool(recyclePool);
+        year.setRecyclePool(recyclePool);
+        day.setRecyclePool(recyclePool);
+        // days adapter is replaced when the month is changed
+        day.setKeepRecycledViewsOnAdapterChange(true);
         
         OnWheelChangedListener listener = new OnWheelChangedListener() {
             public void onChanged(WheelView wheel, int oldValue, int newValue) {
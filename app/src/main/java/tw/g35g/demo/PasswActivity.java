@@ -2,6 +2,7 @@ package tw.g35g.demo;
 
 import tw.g35g.widget.OnWheelChangedListener;
 import tw.g35g.widget.OnWheelScrollListener;
+import tw.g35g.widget.WheelRecyclePool;
 import tw.g35g.widget.WheelView;
 import tw.g35g.widget.adapters.NumericWheelAdapter;
 import android.app.Activity;
@@ -36,6 +37,9 @@ public class PasswActivity extends Activity {
         updateStatus();
     }
     
+    // Item views shared by all the wheels
+    private WheelRecyclePool recyclePool = new WheelRecyclePool();
+
     // Wheel scrolled flag
     private boolean wheelScrolled = false;
     
@@ -77,6 +81,7 @@ public class PasswActivity extends Activity {
      */
     private void initWheel(int id) {
         WheelView wheel = getWheel(id);
+        wheel.setRecyclePool(recyclePool);
         wheel.setViewAdapter(new NumericWheelAdapter(this, 0, 9));
         wheel.setCurrentItem((int)(Math.random() * 10));
         
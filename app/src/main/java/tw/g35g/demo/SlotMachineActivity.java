@@ -6,6 +6,8 @@ import java.util.List;
 
 import tw.g35g.widget.OnWheelChangedListener;
 import tw.g35g.widget.OnWheelScrollListener;
+import tw.g35g.widget.WheelAnimationGroup;
+import tw.g35g.widget.WheelRecyclePool;
 import tw.g35g.widget.WheelView;
 import tw.g35g.widget.adapters.AbstractWheelAdapter;
 import android.app.Activity;
@@ -34,15 +36,23 @@ public class SlotMachineActivity extends Activity {
         Button mix = (Button)findViewById(R.id.btn_mix);
         mix.setOnClickListener(new OnClickListener() {
             public void onClick(View v) {
-                mixWheel(R.id.slot_1);
-                mixWheel(R.id.slot_2);
-                mixWheel(R.id.slot_3);
+                mixWheels();
             }
         });
         
         updateStatus();
     }
     
+    // Item views shared by all the wheels
+    private WheelRecyclePool recyclePool = new WheelRecyclePool();
+
+    // Animations of all the wheels, they are stepped together
+    private WheelAnimationGroup animationGroup = new WheelAnimationGroup();
+
+    // Full revolutions of the wheels when mixing, they spin backward
+    // and land within one more revolution on the random symbol
+    private static final int MIX_REVOLUTIONS = 10;
+
     // Wheel scrolled flag
     private boolean wheelScrolled = false;
     
@@ -84,6 +94,9 @@ public class SlotMachineActivity extends Activity {
      */
     private void initWheel(int id) {
         WheelView wheel = getWheel(id);
+        wheel.setRecyclePool(recyclePool);
+        animationGroup.addWheel(wheel);
+        wheel.setItemsCacheEnabled(true);
         wheel.setViewAdapter(new SlotMachineAdapter(this));
         wheel.setCurrentItem((int)(Math.random() * 10));
         
@@ -122,12 +135,15 @@ public class SlotMachineActivity extends Activity {
     }
     
     /**
-     * Mixes wheel
-     * @param id the wheel id
+     * Mixes wheels, they start together and stop one by one
      */
-    private void mixWheel(int id) {
-        WheelView wheel = getWheel(id);
-        wheel.scroll(-350 + (int)(Math.random() * 50), 2000);
+    private void mixWheels() {
+        int itemsCount = getWheel(R.id.slot_1).getViewAdapter().getItemsCount();
+        int[] indexes = new int[animationGroup.getWheelCount()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = (int)(Math.random() * itemsCount);
+        }
+        animationGroup.spinAll(indexes, -MIX_REVOLUTIONS, 2000, 0, 300);
     }
     
     /**
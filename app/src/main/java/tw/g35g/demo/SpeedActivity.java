@@ -41,7 +41,7 @@ public class SpeedActivity extends Activity {
                 speedAdapter.setUnits(" " + value);
                 speed.invalidateWheel(false);
             }
-        });
+        }, WheelView.DISPATCH_PER_FRAME);
         
         units.setCurrentItem(1);
     }
@@ -28,20 +28,24 @@ public class Time2Activity extends Activity {
         NumericWheelAdapter hourAdapter = new NumericWheelAdapter(this, 0, 23);
         hourAdapter.setItemResource(R.layout.wheel_text_item);
         hourAdapter.setItemTextResource(R.id.text);
+        hourAdapter.setAsyncInflationEnabled(true);
         hours.setViewAdapter(hourAdapter);
     
         final WheelView mins = (WheelView) findViewById(R.id.mins);
         NumericWheelAdapter minAdapter = new NumericWheelAdapter(this, 0, 59, "%02d");
         minAdapter.setItemResource(R.layout.wheel_text_item);
         minAdapter.setItemTextResource(R.id.text);
-        mins.setViewAdapter(minAdapter);
+        minAdapter.setAsyncInflationEnabled(true);
+        // cyclic wheel needs no empty items, so it is set before views are inflated
         mins.setCyclic(true);
+        mins.setViewAdapter(minAdapter);
         
         final WheelView ampm = (WheelView) findViewById(R.id.ampm);
         ArrayWheelAdapter<String> ampmAdapter =
             new ArrayWheelAdapter<String>(this, new String[] {"AM", "PM"});
         ampmAdapter.setItemResource(R.layout.wheel_text_item);
         ampmAdapter.setItemTextResource(R.id.text);
+        ampmAdapter.setAsyncInflationEnabled(true);
         ampm.setViewAdapter(ampmAdapter);
     
         // set current time
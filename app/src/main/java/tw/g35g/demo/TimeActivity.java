@@ -4,6 +4,7 @@ import java.util.Calendar;
 
 import tw.g35g.widget.OnWheelChangedListener;
 import tw.g35g.widget.OnWheelScrollListener;
+import tw.g35g.widget.WheelAnimationGroup;
 import tw.g35g.widget.WheelView;
 import tw.g35g.widget.adapters.NumericWheelAdapter;
 
@@ -25,11 +26,23 @@ public class TimeActivity extends Activity {
 		setContentView(R.layout.time_layout);
 	
 		final WheelView hours = (WheelView) findViewById(R.id.hour);
-		hours.setViewAdapter(new NumericWheelAdapter(this, 0, 23));
+		hours.setTextRenderingEnabled(true);
+		NumericWheelAdapter hourAdapter = new NumericWheelAdapter(this, 0, 23);
+		hourAdapter.setPreformatted(true);
+		hours.setViewAdapter(hourAdapter);
 	
 		final WheelView mins = (WheelView) findViewById(R.id.mins);
-		mins.setViewAdapter(new NumericWheelAdapter(this, 0, 59, "%02d"));
+		mins.setTextRenderingEnabled(true);
+		NumericWheelAdapter minAdapter = new NumericWheelAdapter(this, 0, 59, "%02d");
+		minAdapter.setPreformatted(true);
+		minAdapter.setTextCacheSize(60);
+		mins.setViewAdapter(minAdapter);
 		mins.setCyclic(true);
+
+		// both wheels scroll together when the time picker is changed
+		WheelAnimationGroup animationGroup = new WheelAnimationGroup();
+		animationGroup.addWheel(hours);
+		animationGroup.addWheel(mins);
 	
 		final TimePicker picker = (TimePicker) findViewById(R.id.time);
 		picker.setIs24HourView(true);
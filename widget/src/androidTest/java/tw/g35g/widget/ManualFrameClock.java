@@ -0,0 +1,81 @@
+package tw.g35g.widget;
+
+import java.util.ArrayList;
+
+/**
+ * Frame clock stepped by tests. Each call of doFrame() advances the frame time
+ * by one display frame and calls the callbacks posted for it; the callbacks posted
+ * while they are called wait for the next frame, as with the Choreographer.
+ */
+public class ManualFrameClock implements WheelFrameClock {
+
+    /** Frame duration at 60 frames per second */
+    public static final long FRAME_NANOS = 1000000000L / 60;
+
+    private ArrayList<FrameCallback> callbacks = new ArrayList<FrameCallback>();
+    private ArrayList<FrameCallback> runningCallbacks = new ArrayList<FrameCallback>();
+    private long frameTimeNanos;
+
+    @Override
+    public void postFrameCallback(FrameCallback callback) {
+        if (!callbacks.contains(callback)) {
+            callbacks.add(callback);
+        }
+    }
+
+    @Override
+    public void removeFrameCallback(FrameCallback callback) {
+        callbacks.remove(callback);
+        int index = runningCallbacks.indexOf(callback);
+        if (index >= 0) {
+            runningCallbacks.set(index, null);
+        }
+    }
+
+    /**
+     * Gets count of callbacks posted for the next frame
+     * @return the count of callbacks
+     */
+    public int getCallbackCount() {
+        return callbacks.size();
+    }
+
+    /**
+     * Gets time of the last frame
+     * @return the frame time in nanoseconds
+     */
+    public long getFrameTimeNanos() {
+        return frameTimeNanos;
+    }
+
+    /**
+     * Advances time by one frame and calls the posted callbacks
+     */
+    public void doFrame() {
+        frameTimeNanos += FRAME_NANOS;
+        ArrayList<FrameCallback> running = callbacks;
+        callbacks = runningCallbacks;
+        runningCallbacks = running;
+        for (int i = 0; i < running.size(); i++) {
+            FrameCallback callback = running.get(i);
+            if (callback != null) {
+                callback.doFrame(frameTimeNanos);
+            }
+        }
+        running.clear();
+    }
+
+    /**
+     * Does frames until no callback is posted
+     * @param maxFrames the maximum count of frames
+     * @return the count of frames done
+     */
+    public int doFramesUntilIdle(int maxFrames) {
+        int frames = 0;
+        while (!callbacks.isEmpty() && frames < maxFrames) {
+            doFrame();
+            frames++;
+        }
+        return frames;
+    }
+}
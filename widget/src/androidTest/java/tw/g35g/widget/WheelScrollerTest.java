@@ -0,0 +1,146 @@
+package tw.g35g.widget;
+
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.view.MotionEvent;
+
+/**
+ * Steps WheelScroller animations by a manual frame clock
+ */
+public class WheelScrollerTest extends InstrumentationTestCase {
+
+    private static final int ITEM_HEIGHT = 50;
+    private static final int MAX_FRAMES = 600;
+
+    private WheelScroller scroller;
+    private ManualFrameClock clock;
+    private RecordingListener listener;
+
+    /**
+     * Scrolling listener which justifies to the item height like the wheel does
+     */
+    private class RecordingListener implements WheelScroller.ScrollingListener {
+        int offset;
+        int scrollCount;
+        int startedCount;
+        int finishedCount;
+        int justifyCount;
+
+        @Override
+        public void onScroll(int distance) {
+            offset += distance;
+            scrollCount++;
+        }
+
+        @Override
+        public void onStarted() {
+            startedCount++;
+        }
+
+        @Override
+        public void onFinished() {
+            finishedCount++;
+        }
+
+        @Override
+        public void onJustify() {
+            justifyCount++;
+            int remainder = offset % ITEM_HEIGHT;
+            if (remainder != 0) {
+                scroller.scroll(remainder, 0);
+            }
+        }
+
+        @Override
+        public int adjustFlingDistance(int distance) {
+            // the fling ends between items, so it has to be justified
+            return distance;
+        }
+    }
+
+    private void createScroller() {
+        listener = new RecordingListener();
+        scroller = new WheelScroller(getInstrumentation().getTargetContext(), listener);
+        clock = new ManualFrameClock();
+        scroller.setFrameClock(clock);
+    }
+
+    @UiThreadTest
+    public void testFlingIsJustifiedAndFinishedOnce() {
+        createScroller();
+        long downTime = SystemClock.uptimeMillis();
+        touch(downTime, 0, MotionEvent.ACTION_DOWN, 400);
+        for (int i = 1; i <= 5; i++) {
+            touch(downTime, i * 10, MotionEvent.ACTION_MOVE, 400 - i * 53);
+        }
+        touch(downTime, 50, MotionEvent.ACTION_UP, 400 - 5 * 53);
+
+        int frames = clock.doFramesUntilIdle(MAX_FRAMES);
+        assertTrue(frames < MAX_FRAMES);
+        assertEquals(1, listener.startedCount);
+        assertEquals(1, listener.finishedCount);
+        assertTrue(listener.justifyCount >= 1);
+        assertEquals(0, listener.offset % ITEM_HEIGHT);
+        assertEquals(0, scroller.getRemainingDistance());
+
+        // nothing happens on the next frames
+        for (int i = 0; i < 10; i++) {
+            clock.doFrame();
+        }
+        assertEquals(1, listener.finishedCount);
+    }
+
+    @UiThreadTest
+    public void testAnimationMovesToNewFrameClock() {
+        createScroller();
+        scroller.scroll(-10 * ITEM_HEIGHT, 1000);
+        clock.doFrame();
+        clock.doFrame();
+        assertEquals(1, clock.getCallbackCount());
+
+        ManualFrameClock newClock = new ManualFrameClock();
+        scroller.setFrameClock(newClock);
+        assertSame(newClock, scroller.getFrameClock());
+        assertEquals(0, clock.getCallbackCount());
+        assertEquals(1, newClock.getCallbackCount());
+
+        int scrollCount = listener.scrollCount;
+        clock.doFrame();
+        assertEquals(scrollCount, listener.scrollCount);
+
+        assertTrue(newClock.doFramesUntilIdle(MAX_FRAMES) < MAX_FRAMES);
+        assertEquals(10 * ITEM_HEIGHT, listener.offset);
+        assertEquals(1, listener.finishedCount);
+    }
+
+    @UiThreadTest
+    public void testTouchMovesWithinFrameAreScrolledOnce() {
+        createScroller();
+        long downTime = SystemClock.uptimeMillis();
+        touch(downTime, 0, MotionEvent.ACTION_DOWN, 100);
+        // the first move is reduced by the touch slop of 15 pixels
+        touch(downTime, 4, MotionEvent.ACTION_MOVE, 120);
+        touch(downTime, 8, MotionEvent.ACTION_MOVE, 130);
+        touch(downTime, 12, MotionEvent.ACTION_MOVE, 145);
+        assertEquals(0, listener.scrollCount);
+        assertEquals(1, clock.getCallbackCount());
+
+        clock.doFrame();
+        assertEquals(1, listener.scrollCount);
+        assertEquals(145 - 100 - 15, listener.offset);
+
+        // the moves after the frame are scrolled on the next one
+        touch(downTime, 20, MotionEvent.ACTION_MOVE, 160);
+        touch(downTime, 24, MotionEvent.ACTION_MOVE, 170);
+        clock.doFrame();
+        assertEquals(2, listener.scrollCount);
+        assertEquals(170 - 100 - 15, listener.offset);
+    }
+
+    private void touch(long downTime, long time, int action, int y) {
+        MotionEvent event = MotionEvent.obtain(downTime, downTime + time, action, 100, y, 0);
+        scroller.onTouchEvent(event);
+        event.recycle();
+    }
+}
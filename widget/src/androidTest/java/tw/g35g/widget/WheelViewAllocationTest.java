@@ -0,0 +1,139 @@
+package tw.g35g.widget;
+
+import tw.g35g.widget.adapters.IntArrayWheelAdapter;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Debug;
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.test.UiThreadTest;
+import android.view.MotionEvent;
+import android.view.View.MeasureSpec;
+
+/**
+ * Checks that the frames of scrolling and flinging wheel, with items drawn as text
+ * and listeners notified, do not allocate once the wheel is warmed up.
+ */
+public class WheelViewAllocationTest extends InstrumentationTestCase {
+
+    private static final int WIDTH = 240;
+    private static final int HEIGHT = 480;
+
+    // 5 seconds of frames
+    private static final int SCRIPT_FRAMES = 300;
+
+    private WheelView wheel;
+    private ManualFrameClock clock;
+    private Canvas canvas;
+    private Bitmap bitmap;
+    private int changes;
+    private int scrolls;
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (bitmap != null) {
+            bitmap.recycle();
+        }
+        super.tearDown();
+    }
+
+    @UiThreadTest
+    public void testScrollFramesDoNotAllocate() {
+        createWheel();
+        // the first run creates caches and buffers
+        wheel.scroll(-40, 5000);
+        doFrames(SCRIPT_FRAMES);
+
+        changes = 0;
+        wheel.scroll(40, 5000);
+        assertEquals(0, countFrameAllocations(SCRIPT_FRAMES));
+        assertTrue(changes > 0);
+    }
+
+    @UiThreadTest
+    public void testFlingFramesDoNotAllocate() {
+        createWheel();
+        fling(HEIGHT - 40, 40);
+        doFrames(SCRIPT_FRAMES);
+
+        scrolls = 0;
+        fling(40, HEIGHT - 40);
+        assertEquals(0, countFrameAllocations(SCRIPT_FRAMES));
+        assertTrue(scrolls > 0);
+    }
+
+    private void createWheel() {
+        int[] items = new int[100];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = i;
+        }
+        wheel = new WheelView(getInstrumentation().getTargetContext());
+        wheel.setViewAdapter(new IntArrayWheelAdapter(wheel.getContext(), items));
+        wheel.setTextRenderingEnabled(true);
+        wheel.setCyclic(true);
+        clock = new ManualFrameClock();
+        wheel.setFrameClock(clock);
+        wheel.addChangingListener(new OnWheelChangedListener() {
+            @Override
+            public void onChanged(WheelView wheel, int oldValue, int newValue) {
+                changes++;
+            }
+        });
+        wheel.addScrollingListener(new OnWheelScrollListener() {
+            @Override
+            public void onScrollingStarted(WheelView wheel) {
+                scrolls++;
+            }
+
+            @Override
+            public void onScrollingFinished(WheelView wheel) {
+            }
+        });
+
+        wheel.measure(MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+        wheel.layout(0, 0, WIDTH, HEIGHT);
+        bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+        wheel.draw(canvas);
+    }
+
+    /**
+     * Flings wheel by touch events, the events are not counted
+     */
+    private void fling(int fromY, int toY) {
+        long downTime = SystemClock.uptimeMillis();
+        int x = WIDTH / 2;
+        int steps = 5;
+        touch(downTime, downTime, MotionEvent.ACTION_DOWN, x, fromY);
+        for (int i = 1; i <= steps; i++) {
+            touch(downTime, downTime + i * 10, MotionEvent.ACTION_MOVE, x, fromY + (toY - fromY) * i / steps);
+            clock.doFrame();
+        }
+        touch(downTime, downTime + steps * 10, MotionEvent.ACTION_UP, x, toY);
+    }
+
+    private void touch(long downTime, long eventTime, int action, int x, int y) {
+        MotionEvent event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0);
+        wheel.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private void doFrames(int count) {
+        for (int i = 0; i < count; i++) {
+            clock.doFrame();
+            wheel.draw(canvas);
+        }
+    }
+
+    private int countFrameAllocations(int frames) {
+        Debug.resetThreadAllocCount();
+        Debug.startAllocCounting();
+        try {
+            doFrames(frames);
+            return Debug.getThreadAllocCount();
+        } finally {
+            Debug.stopAllocCounting();
+        }
+    }
+}
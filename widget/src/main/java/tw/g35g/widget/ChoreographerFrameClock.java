@@ -0,0 +1,82 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import java.util.ArrayList;
+
+import android.view.Choreographer;
+
+/**
+ * Frame clock driven by the Choreographer of the current thread.
+ * All the callbacks posted for a frame are called from one Choreographer callback.
+ */
+public class ChoreographerFrameClock implements WheelFrameClock, Choreographer.FrameCallback {
+	// Choreographer of the thread the clock is created on
+	private final Choreographer choreographer;
+
+	// Callbacks posted for the next frame, and the ones being called
+	private ArrayList<FrameCallback> callbacks = new ArrayList<FrameCallback>();
+	private ArrayList<FrameCallback> runningCallbacks = new ArrayList<FrameCallback>();
+
+	/**
+	 * Constructor, must be called on a thread with a Looper
+	 */
+	public ChoreographerFrameClock() {
+		choreographer = Choreographer.getInstance();
+	}
+
+	@Override
+	public void postFrameCallback(FrameCallback callback) {
+		if (callbacks.contains(callback)) {
+			return;
+		}
+		if (callbacks.isEmpty()) {
+			choreographer.postFrameCallback(this);
+		}
+		callbacks.add(callback);
+	}
+
+	@Override
+	public void removeFrameCallback(FrameCallback callback) {
+		if (callbacks.remove(callback) && callbacks.isEmpty()) {
+			choreographer.removeFrameCallback(this);
+		}
+		// the callback may be removed by another one called on this frame
+		int index = runningCallbacks.indexOf(callback);
+		if (index >= 0) {
+			runningCallbacks.set(index, null);
+		}
+	}
+
+	@Override
+	public void doFrame(long frameTimeNanos) {
+		// callbacks posted while running are called on the next frame
+		ArrayList<FrameCallback> running = callbacks;
+		callbacks = runningCallbacks;
+		runningCallbacks = running;
+		for (int i = 0; i < running.size(); i++) {
+			FrameCallback callback = running.get(i);
+			if (callback != null) {
+				callback.doFrame(frameTimeNanos);
+			}
+		}
+		running.clear();
+	}
+}
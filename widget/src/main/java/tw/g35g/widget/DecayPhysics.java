@@ -0,0 +1,243 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import android.view.animation.Interpolator;
+
+/**
+ * Default wheel physics. Flings decelerate exponentially, like under a constant friction,
+ * and scrolling to a position follows an interpolator over the given duration.
+ */
+public class DecayPhysics implements WheelPhysics {
+	/** Default decay time of fling velocity, in seconds */
+	public static final float DEFAULT_DECAY_TIME = 0.3f;
+
+	// Motion is finished when it comes closer to the final position
+	private static final float POSITION_TOLERANCE = 0.5f;
+
+	// Start time of motion which is not updated yet
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	// Motion modes
+	private static final int MODE_FLING = 0;
+	private static final int MODE_SCROLL = 1;
+
+	// Settings
+	private float decayTime = DEFAULT_DECAY_TIME;
+	private Interpolator interpolator;
+
+	// Current motion
+	private boolean isFinished = true;
+	private int mode;
+	private long startTime = NOT_STARTED;
+	private long lastTime;
+	private float startPosition;
+	private float finalPosition;
+	private float startVelocity;
+	private float timeConstant;
+	private float duration;
+
+	// State at the last update
+	private float position;
+	private float velocity;
+
+	/**
+	 * Sets decay time of fling velocity. A fling scrolls by its initial velocity
+	 * multiplied by the decay time.
+	 * @param seconds the decay time in seconds
+	 */
+	public void setDecayTime(float seconds) {
+		if (seconds <= 0) {
+			throw new IllegalArgumentException("Decay time must be positive");
+		}
+		decayTime = seconds;
+	}
+
+	/**
+	 * Gets decay time of fling velocity
+	 * @return the decay time in seconds
+	 */
+	public float getDecayTime() {
+		return decayTime;
+	}
+
+	/**
+	 * Sets interpolator of scrolling to a position
+	 * @param interpolator the interpolator, null to decelerate quadratically
+	 */
+	public void setInterpolator(Interpolator interpolator) {
+		this.interpolator = interpolator;
+	}
+
+	@Override
+	public void fling(float start, float velocity) {
+		isFinished = true;
+		position = start;
+		startFling(velocity, decayTime);
+	}
+
+	@Override
+	public void scroll(float start, float end, int durationMillis) {
+		isFinished = true;
+		position = start;
+		velocity = 0;
+		startScroll(end, durationMillis / 1000f);
+	}
+
+	@Override
+	public void setFinalPosition(float position) {
+		if (isFinished) {
+			return;
+		}
+		float distance = position - this.position;
+		if (Math.abs(distance) < POSITION_TOLERANCE) {
+			this.position = position;
+			stop();
+		} else if (mode == MODE_FLING && distance * velocity > 0) {
+			// keep the velocity and change the deceleration
+			startFling(velocity, distance / velocity);
+		} else {
+			float remaining = mode == MODE_FLING ? decayTime : Math.max(duration - elapsed(lastTime), 0);
+			startScroll(position, remaining);
+		}
+	}
+
+	@Override
+	public float getFinalPosition() {
+		return finalPosition;
+	}
+
+	@Override
+	public boolean update(long timeNanos) {
+		if (isFinished) {
+			return false;
+		}
+		if (startTime == NOT_STARTED) {
+			startTime = timeNanos;
+		}
+		lastTime = timeNanos;
+		float elapsed = elapsed(timeNanos);
+
+		if (mode == MODE_FLING) {
+			float decay = (float) Math.exp(-elapsed / timeConstant);
+			position = finalPosition - (finalPosition - startPosition) * decay;
+			velocity = startVelocity * decay;
+			if (Math.abs(finalPosition - position) < POSITION_TOLERANCE) {
+				finish();
+			}
+		} else {
+			float fraction = duration > 0 ? Math.min(elapsed / duration, 1) : 1;
+			float distance = finalPosition - startPosition;
+			if (interpolator != null) {
+				position = startPosition + distance * interpolator.getInterpolation(fraction);
+				velocity = 0;
+			} else {
+				position = startPosition + distance * fraction * (2 - fraction);
+				velocity = duration > 0 ? 2 * distance * (1 - fraction) / duration : 0;
+			}
+			if (fraction >= 1) {
+				finish();
+			}
+		}
+		return !isFinished;
+	}
+
+	@Override
+	public float getPosition() {
+		return position;
+	}
+
+	@Override
+	public float getVelocity() {
+		return velocity;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return isFinished;
+	}
+
+	@Override
+	public void stop() {
+		isFinished = true;
+		velocity = 0;
+		finalPosition = position;
+	}
+
+	/**
+	 * Starts fling from the current position
+	 * @param velocity the initial velocity
+	 * @param timeConstant the decay time of velocity
+	 */
+	private void startFling(float velocity, float timeConstant) {
+		mode = MODE_FLING;
+		restart();
+		this.velocity = velocity;
+		startVelocity = velocity;
+		this.timeConstant = timeConstant;
+		finalPosition = position + velocity * timeConstant;
+		if (Math.abs(finalPosition - position) < POSITION_TOLERANCE) {
+			stop();
+		}
+	}
+
+	/**
+	 * Starts scrolling from the current position
+	 * @param end the final position
+	 * @param duration the duration in seconds
+	 */
+	private void startScroll(float end, float duration) {
+		mode = MODE_SCROLL;
+		restart();
+		finalPosition = end;
+		this.duration = duration;
+	}
+
+	/**
+	 * Starts new motion from the current position, at the time of the last update
+	 * if the motion is running, or at the next update
+	 */
+	private void restart() {
+		if (isFinished) {
+			startTime = NOT_STARTED;
+		} else if (startTime != NOT_STARTED) {
+			startTime = lastTime;
+		}
+		startPosition = position;
+		isFinished = false;
+	}
+
+	/**
+	 * Finishes motion at the final position
+	 */
+	private void finish() {
+		position = finalPosition;
+		stop();
+	}
+
+	/**
+	 * Gets time elapsed since the motion start
+	 * @param timeNanos the time
+	 * @return the elapsed time in seconds
+	 */
+	private float elapsed(long timeNanos) {
+		return startTime == NOT_STARTED ? 0 : (timeNanos - startTime) / 1e9f;
+	}
+}
@@ -46,6 +46,16 @@ public class ItemsRange {
 		this.count = count;
 	}
 	
+	/**
+	 * Sets range, so one range object can be reused
+	 * @param first the number of first item
+	 * @param count the count of items
+	 */
+	public void set(int first, int count) {
+		this.first = first;
+		this.count = count;
+	}
+
 	/**
 	 * Gets number of  first item
 	 * @return the number of the first item
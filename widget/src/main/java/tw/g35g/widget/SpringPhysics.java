@@ -0,0 +1,241 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+/**
+ * Wheel physics of a damped spring pulling the wheel to the final position.
+ * Flings start with the fling velocity and settle at the position a decaying fling would reach;
+ * a spring with damping ratio below 1 overshoots it and swings back.
+ */
+public class SpringPhysics implements WheelPhysics {
+	/** Default damping ratio */
+	public static final float DEFAULT_DAMPING_RATIO = 0.6f;
+
+	// Motion is finished when it comes closer to the final position and slows down
+	private static final float POSITION_TOLERANCE = 0.5f;
+	private static final float VELOCITY_TOLERANCE = 20f;
+
+	// Count of time constants the scrolling settles in
+	private static final float SETTLE_TIME_CONSTANTS = 6f;
+
+	// Start time of motion which is not updated yet
+	private static final long NOT_STARTED = Long.MIN_VALUE;
+
+	// Damping ratio, 1 for critically damped spring
+	private final float dampingRatio;
+
+	// Decay time of fling velocity
+	private float decayTime = DecayPhysics.DEFAULT_DECAY_TIME;
+
+	// Current motion
+	private boolean isFinished = true;
+	private boolean isFling;
+	private long startTime = NOT_STARTED;
+	private long lastTime;
+	private float startDisplacement;
+	private float startVelocity;
+	private float finalPosition;
+	private float frequency;
+
+	// State at the last update
+	private float position;
+	private float velocity;
+
+	/**
+	 * Constructor
+	 */
+	public SpringPhysics() {
+		this(DEFAULT_DAMPING_RATIO);
+	}
+
+	/**
+	 * Constructor
+	 * @param dampingRatio the damping ratio, below 1 the spring overshoots
+	 */
+	public SpringPhysics(float dampingRatio) {
+		if (dampingRatio <= 0) {
+			throw new IllegalArgumentException("Damping ratio must be positive");
+		}
+		this.dampingRatio = dampingRatio;
+	}
+
+	/**
+	 * Gets damping ratio of the spring
+	 * @return the damping ratio
+	 */
+	public float getDampingRatio() {
+		return dampingRatio;
+	}
+
+	/**
+	 * Sets decay time of fling velocity. A fling settles at its initial velocity
+	 * multiplied by the decay time.
+	 * @param seconds the decay time in seconds
+	 */
+	public void setDecayTime(float seconds) {
+		if (seconds <= 0) {
+			throw new IllegalArgumentException("Decay time must be positive");
+		}
+		decayTime = seconds;
+	}
+
+	/**
+	 * Gets decay time of fling velocity
+	 * @return the decay time in seconds
+	 */
+	public float getDecayTime() {
+		return decayTime;
+	}
+
+	@Override
+	public void fling(float start, float velocity) {
+		isFinished = true;
+		isFling = true;
+		position = start;
+		this.velocity = velocity;
+		// critically damped spring with this frequency moves like a decaying fling
+		start(start + velocity * decayTime, 1 / decayTime);
+	}
+
+	@Override
+	public void scroll(float start, float end, int durationMillis) {
+		isFinished = true;
+		isFling = false;
+		position = start;
+		velocity = 0;
+		float seconds = Math.max(durationMillis / 1000f, 0.001f);
+		start(end, SETTLE_TIME_CONSTANTS / (Math.min(dampingRatio, 1) * seconds));
+	}
+
+	@Override
+	public void setFinalPosition(float position) {
+		if (isFinished) {
+			return;
+		}
+		float distance = position - this.position;
+		if (isFling && distance * velocity > 0) {
+			// keep the decay of the fling
+			start(position, velocity / distance);
+		} else {
+			start(position, frequency);
+		}
+	}
+
+	@Override
+	public float getFinalPosition() {
+		return finalPosition;
+	}
+
+	@Override
+	public boolean update(long timeNanos) {
+		if (isFinished) {
+			return false;
+		}
+		if (startTime == NOT_STARTED) {
+			startTime = timeNanos;
+		}
+		lastTime = timeNanos;
+		double t = (timeNanos - startTime) / 1e9;
+		double d0 = startDisplacement;
+		double v0 = startVelocity;
+		double w = frequency;
+		double z = dampingRatio;
+		double displacement;
+		double speed;
+		if (z < 1) {
+			double decay = z * w;
+			double wd = w * Math.sqrt(1 - z * z);
+			double b = (v0 + decay * d0) / wd;
+			double e = Math.exp(-decay * t);
+			double cos = Math.cos(wd * t);
+			double sin = Math.sin(wd * t);
+			displacement = e * (d0 * cos + b * sin);
+			speed = e * (wd * (b * cos - d0 * sin)) - decay * displacement;
+		} else if (z == 1) {
+			double b = v0 + w * d0;
+			double e = Math.exp(-w * t);
+			displacement = (d0 + b * t) * e;
+			speed = b * e - w * displacement;
+		} else {
+			double root = Math.sqrt(z * z - 1);
+			double r1 = -w * (z - root);
+			double r2 = -w * (z + root);
+			double c1 = (v0 - r2 * d0) / (r1 - r2);
+			double c2 = d0 - c1;
+			double e1 = Math.exp(r1 * t);
+			double e2 = Math.exp(r2 * t);
+			displacement = c1 * e1 + c2 * e2;
+			speed = c1 * r1 * e1 + c2 * r2 * e2;
+		}
+		position = finalPosition + (float) displacement;
+		velocity = (float) speed;
+		if (Math.abs(displacement) < POSITION_TOLERANCE && Math.abs(speed) < VELOCITY_TOLERANCE) {
+			position = finalPosition;
+			stop();
+		}
+		return !isFinished;
+	}
+
+	@Override
+	public float getPosition() {
+		return position;
+	}
+
+	@Override
+	public float getVelocity() {
+		return velocity;
+	}
+
+	@Override
+	public boolean isFinished() {
+		return isFinished;
+	}
+
+	@Override
+	public void stop() {
+		isFinished = true;
+		velocity = 0;
+		finalPosition = position;
+	}
+
+	/**
+	 * Starts motion from the current position and velocity, at the time of the last update
+	 * if the motion is running, or at the next update
+	 * @param end the final position
+	 * @param frequency the natural frequency of the spring in radians per second
+	 */
+	private void start(float end, float frequency) {
+		if (isFinished) {
+			startTime = NOT_STARTED;
+		} else if (startTime != NOT_STARTED) {
+			startTime = lastTime;
+		}
+		finalPosition = end;
+		this.frequency = frequency;
+		startDisplacement = position - end;
+		startVelocity = velocity;
+		isFinished = Math.abs(startDisplacement) < POSITION_TOLERANCE
+				&& Math.abs(startVelocity) < VELOCITY_TOLERANCE;
+		if (isFinished) {
+			position = end;
+			velocity = 0;
+		}
+	}
+}
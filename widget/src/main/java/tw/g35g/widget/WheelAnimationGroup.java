@@ -0,0 +1,310 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import java.util.ArrayList;
+
+/**
+ * Drives the animations of several wheels from one frame callback.
+ * <p>The group is the frame clock of its wheels. On every frame it steps the wheels
+ * in the order they were added, so their physics, listener events and invalidations
+ * are done together in one pass, then it calls other callbacks posted to the group.
+ * Animations of the wheels can be started with delays, to start and stop them in turn.
+ */
+public class WheelAnimationGroup implements WheelFrameClock {
+	// Start time of animation which is scheduled but not counted yet
+	private static final long NOT_SCHEDULED = Long.MIN_VALUE;
+
+	/**
+	 * Frame clock of one wheel, its callbacks are called by the group
+	 */
+	private class WheelClock implements WheelFrameClock {
+		final WheelView wheel;
+		ArrayList<FrameCallback> callbacks = new ArrayList<FrameCallback>();
+		ArrayList<FrameCallback> runningCallbacks = new ArrayList<FrameCallback>();
+
+		WheelClock(WheelView wheel) {
+			this.wheel = wheel;
+		}
+
+		@Override
+		public void postFrameCallback(FrameCallback callback) {
+			if (!callbacks.contains(callback)) {
+				callbacks.add(callback);
+				requestFrame();
+			}
+		}
+
+		@Override
+		public void removeFrameCallback(FrameCallback callback) {
+			callbacks.remove(callback);
+			int index = runningCallbacks.indexOf(callback);
+			if (index >= 0) {
+				runningCallbacks.set(index, null);
+			}
+		}
+
+		void doFrame(long frameTimeNanos) {
+			// callbacks posted while running are called on the next frame
+			ArrayList<FrameCallback> running = callbacks;
+			callbacks = runningCallbacks;
+			runningCallbacks = running;
+			for (int i = 0; i < running.size(); i++) {
+				FrameCallback callback = running.get(i);
+				if (callback != null) {
+					callback.doFrame(frameTimeNanos);
+				}
+			}
+			running.clear();
+		}
+	}
+
+	/**
+	 * Animation started after a delay
+	 */
+	private static class DelayedStart {
+		final WheelView wheel;
+		final boolean isSpin;
+		final int items;
+		final int revolutions;
+		final int time;
+		final long delayNanos;
+		long scheduleTime = NOT_SCHEDULED;
+
+		DelayedStart(WheelView wheel, boolean isSpin, int items, int revolutions, int time, int delay) {
+			this.wheel = wheel;
+			this.isSpin = isSpin;
+			this.items = items;
+			this.revolutions = revolutions;
+			this.time = time;
+			this.delayNanos = delay * 1000000L;
+		}
+	}
+
+	// Clock driving the group
+	private final WheelFrameClock clock;
+	private boolean isFramePosted = false;
+
+	// Wheels in order of stepping
+	private ArrayList<WheelClock> wheels = new ArrayList<WheelClock>();
+
+	// Callbacks posted to the group by others
+	private WheelClock otherCallbacks = new WheelClock(null);
+
+	// Animations waiting for start
+	private ArrayList<DelayedStart> delayedStarts = new ArrayList<DelayedStart>();
+
+	/**
+	 * Constructor, the group is driven by the Choreographer of the current thread
+	 */
+	public WheelAnimationGroup() {
+		this(new ChoreographerFrameClock());
+	}
+
+	/**
+	 * Constructor
+	 * @param clock the clock driving the group
+	 */
+	public WheelAnimationGroup(WheelFrameClock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Adds wheel to the group. The group becomes the frame clock of the wheel.
+	 * @param wheel the wheel
+	 */
+	public void addWheel(WheelView wheel) {
+		if (findWheel(wheel) >= 0) {
+			return;
+		}
+		wheels.add(new WheelClock(wheel));
+		wheel.setFrameClock(wheels.get(wheels.size() - 1));
+	}
+
+	/**
+	 * Removes wheel from the group. Its delayed animations are cancelled,
+	 * and the running ones continue on the default frame clock.
+	 * @param wheel the wheel
+	 */
+	public void removeWheel(WheelView wheel) {
+		int index = findWheel(wheel);
+		if (index < 0) {
+			return;
+		}
+		WheelClock wheelClock = wheels.remove(index);
+		wheel.setFrameClock(null);
+		// move the callbacks posted by others than the scroller
+		WheelFrameClock newClock = wheel.getFrameClock();
+		for (int i = 0; i < wheelClock.callbacks.size(); i++) {
+			newClock.postFrameCallback(wheelClock.callbacks.get(i));
+		}
+		wheelClock.callbacks.clear();
+		for (int i = delayedStarts.size() - 1; i >= 0; i--) {
+			if (delayedStarts.get(i).wheel == wheel) {
+				delayedStarts.remove(i);
+			}
+		}
+	}
+
+	/**
+	 * Gets count of wheels in the group
+	 * @return the count of wheels
+	 */
+	public int getWheelCount() {
+		return wheels.size();
+	}
+
+	/**
+	 * Scrolls wheel of the group after a delay, see WheelView.scroll()
+	 * @param wheel the wheel
+	 * @param itemsToScroll the count of items to scroll
+	 * @param time the scrolling duration
+	 * @param delay the delay of start in milliseconds
+	 */
+	public void scroll(WheelView wheel, int itemsToScroll, int time, int delay) {
+		schedule(new DelayedStart(wheel, false, itemsToScroll, 0, time, delay));
+	}
+
+	/**
+	 * Spins wheel of the group after a delay, see WheelView.spinTo()
+	 * @param wheel the wheel
+	 * @param index the target item index
+	 * @param extraRevolutions the count of full revolutions
+	 * @param time the spinning duration
+	 * @param delay the delay of start in milliseconds
+	 */
+	public void spinTo(WheelView wheel, int index, int extraRevolutions, int time, int delay) {
+		schedule(new DelayedStart(wheel, true, index, extraRevolutions, time, delay));
+	}
+
+	/**
+	 * Spins all the wheels of the group in turn. The wheel number i starts
+	 * after i * startStagger milliseconds and stops after time + i * stopStagger milliseconds.
+	 * @param indexes the target item indexes of the wheels, in order of adding the wheels
+	 * @param extraRevolutions the count of full revolutions
+	 * @param time the spinning duration of the first wheel
+	 * @param startStagger the delay between starts of the wheels
+	 * @param stopStagger the delay between stops of the wheels
+	 */
+	public void spinAll(int[] indexes, int extraRevolutions, int time, int startStagger, int stopStagger) {
+		if (indexes.length != wheels.size()) {
+			throw new IllegalArgumentException("Count of indexes must be equal to count of wheels");
+		}
+		for (int i = 0; i < indexes.length; i++) {
+			int delay = i * startStagger;
+			int duration = time + i * stopStagger - delay;
+			if (delay < 0 || duration <= 0) {
+				throw new IllegalArgumentException("Wheel " + i + " must start before it stops");
+			}
+			spinTo(wheels.get(i).wheel, indexes[i], extraRevolutions, duration, delay);
+		}
+	}
+
+	/**
+	 * Cancels animations which are not started yet
+	 */
+	public void cancelDelayed() {
+		delayedStarts.clear();
+	}
+
+	@Override
+	public void postFrameCallback(FrameCallback callback) {
+		otherCallbacks.postFrameCallback(callback);
+	}
+
+	@Override
+	public void removeFrameCallback(FrameCallback callback) {
+		otherCallbacks.removeFrameCallback(callback);
+	}
+
+	// steps all the wheels
+	private FrameCallback frameCallback = new FrameCallback() {
+		@Override
+		public void doFrame(long frameTimeNanos) {
+			isFramePosted = false;
+			startDelayed(frameTimeNanos);
+			for (int i = 0; i < wheels.size(); i++) {
+				wheels.get(i).doFrame(frameTimeNanos);
+			}
+			otherCallbacks.doFrame(frameTimeNanos);
+		}
+	};
+
+	/**
+	 * Starts animations which delay is over
+	 * @param frameTimeNanos the frame time
+	 */
+	private void startDelayed(long frameTimeNanos) {
+		for (int i = 0; i < delayedStarts.size(); i++) {
+			DelayedStart start = delayedStarts.get(i);
+			if (start.scheduleTime == NOT_SCHEDULED) {
+				start.scheduleTime = frameTimeNanos;
+			}
+			if (frameTimeNanos - start.scheduleTime < start.delayNanos) {
+				continue;
+			}
+			delayedStarts.remove(i--);
+			if (start.isSpin) {
+				start.wheel.spinTo(start.items, start.revolutions, start.time);
+			} else {
+				start.wheel.scroll(start.items, start.time);
+			}
+		}
+		if (!delayedStarts.isEmpty()) {
+			requestFrame();
+		}
+	}
+
+	/**
+	 * Adds delayed animation
+	 * @param start the animation
+	 */
+	private void schedule(DelayedStart start) {
+		if (findWheel(start.wheel) < 0) {
+			throw new IllegalArgumentException("Wheel is not in the group");
+		}
+		delayedStarts.add(start);
+		requestFrame();
+	}
+
+	/**
+	 * Posts the group callback if it is not posted
+	 */
+	private void requestFrame() {
+		if (!isFramePosted) {
+			isFramePosted = true;
+			clock.postFrameCallback(frameCallback);
+		}
+	}
+
+	/**
+	 * Finds wheel in the group
+	 * @param wheel the wheel
+	 * @return the wheel position or -1 if it is not in the group
+	 */
+	private int findWheel(WheelView wheel) {
+		for (int i = 0; i < wheels.size(); i++) {
+			if (wheels.get(i).wheel == wheel) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
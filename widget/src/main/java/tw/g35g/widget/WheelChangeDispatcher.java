@@ -0,0 +1,216 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+/**
+ * Dispatches current item changes of a wheel to its changing listeners.
+ * Listeners are notified immediately, or changes are coalesced and dispatched once per frame,
+ * at a limited rate, or when the wheel stops scrolling. A coalesced change has the first
+ * old value and the latest new value, and is not dispatched if the wheel came back to the old value.
+ */
+class WheelChangeDispatcher implements WheelFrameClock.FrameCallback {
+	// Time of entry which has not been notified yet
+	private static final long NEVER = Long.MIN_VALUE;
+
+	/**
+	 * Listener with its dispatch mode and the pending change
+	 */
+	private static class Entry {
+		final OnWheelChangedListener listener;
+		final int mode;
+		final long intervalNanos;
+		boolean hasPending;
+		int pendingOld;
+		int pendingNew;
+		long lastDispatchTime = NEVER;
+
+		Entry(OnWheelChangedListener listener, int mode, long intervalNanos) {
+			this.listener = listener;
+			this.mode = mode;
+			this.intervalNanos = intervalNanos;
+		}
+	}
+
+	// The wheel
+	private final WheelView wheel;
+
+	// Listeners
+	private WheelListenerList<Entry> entries = new WheelListenerList<Entry>();
+
+	// Clock the frame callback is posted to, null if it is not posted
+	private WheelFrameClock postedClock;
+
+	// Rate limited changes wait for the frame after this runnable is run
+	private boolean isWakePosted = false;
+	private final Runnable wakeRunnable = new Runnable() {
+		@Override
+		public void run() {
+			isWakePosted = false;
+			postFrame(wheel.getFrameClock());
+		}
+	};
+
+	/**
+	 * Constructor
+	 * @param wheel the wheel the changes are dispatched for
+	 */
+	WheelChangeDispatcher(WheelView wheel) {
+		this.wheel = wheel;
+	}
+
+	/**
+	 * Adds listener
+	 * @param listener the listener
+	 * @param mode the dispatch mode, one of WheelView.DISPATCH_ constants
+	 * @param maxRate the maximum count of notifications per second for the rate limited mode
+	 */
+	void add(OnWheelChangedListener listener, int mode, int maxRate) {
+		long interval = 0;
+		if (mode == WheelView.DISPATCH_RATE_LIMITED) {
+			if (maxRate <= 0) {
+				throw new IllegalArgumentException("Rate must be positive");
+			}
+			interval = 1000000000L / maxRate;
+		} else if (mode != WheelView.DISPATCH_IMMEDIATE && mode != WheelView.DISPATCH_PER_FRAME
+				&& mode != WheelView.DISPATCH_SETTLED) {
+			throw new IllegalArgumentException("Unknown dispatch mode " + mode);
+		}
+		entries.add(new Entry(listener, mode, interval));
+	}
+
+	/**
+	 * Removes the first occurrence of listener, its pending change is dropped
+	 * @param listener the listener
+	 */
+	void remove(OnWheelChangedListener listener) {
+		Object[] array = entries.array();
+		for (int i = 0; i < array.length; i++) {
+			Entry entry = (Entry) array[i];
+			if (entry.listener.equals(listener)) {
+				entries.remove(entry);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Notifies listeners about change, or saves it for coalesced listeners
+	 * @param oldValue the old value
+	 * @param newValue the new value
+	 * @param isScrolling true if the wheel is scrolling
+	 * @param clock the clock of the wheel
+	 */
+	void notifyChanged(int oldValue, int newValue, boolean isScrolling, WheelFrameClock clock) {
+		Object[] array = entries.array();
+		for (int i = 0; i < array.length; i++) {
+			Entry entry = (Entry) array[i];
+			if (entry.mode == WheelView.DISPATCH_IMMEDIATE) {
+				entry.listener.onChanged(wheel, oldValue, newValue);
+				continue;
+			}
+			if (!entry.hasPending) {
+				entry.hasPending = true;
+				entry.pendingOld = oldValue;
+			}
+			entry.pendingNew = newValue;
+			if (entry.mode != WheelView.DISPATCH_SETTLED) {
+				postFrame(clock);
+			} else if (!isScrolling) {
+				dispatch(entry);
+			}
+		}
+	}
+
+	/**
+	 * Dispatches all pending changes, it is called when the wheel stops scrolling
+	 */
+	void flush() {
+		if (isWakePosted) {
+			isWakePosted = false;
+			wheel.removeCallbacks(wakeRunnable);
+		}
+		Object[] array = entries.array();
+		for (int i = 0; i < array.length; i++) {
+			Entry entry = (Entry) array[i];
+			if (entry.hasPending) {
+				dispatch(entry);
+			}
+		}
+	}
+
+	@Override
+	public void doFrame(long frameTimeNanos) {
+		postedClock = null;
+		long waitNanos = Long.MAX_VALUE;
+		Object[] array = entries.array();
+		for (int i = 0; i < array.length; i++) {
+			Entry entry = (Entry) array[i];
+			if (!entry.hasPending || entry.mode == WheelView.DISPATCH_SETTLED) {
+				continue;
+			}
+			if (entry.mode == WheelView.DISPATCH_RATE_LIMITED && entry.lastDispatchTime != NEVER
+					&& frameTimeNanos - entry.lastDispatchTime < entry.intervalNanos) {
+				waitNanos = Math.min(waitNanos, entry.lastDispatchTime + entry.intervalNanos - frameTimeNanos);
+				continue;
+			}
+			entry.lastDispatchTime = frameTimeNanos;
+			dispatch(entry);
+		}
+		if (waitNanos != Long.MAX_VALUE) {
+			postWake(waitNanos);
+		}
+	}
+
+	/**
+	 * Posts frame callback once after the time the rate limited changes wait for.
+	 * A change made meanwhile posts the frame callback earlier, which posts the wake again.
+	 * @param waitNanos the waiting time
+	 */
+	private void postWake(long waitNanos) {
+		if (isWakePosted) {
+			wheel.removeCallbacks(wakeRunnable);
+		}
+		isWakePosted = true;
+		// the frame after the wake is at least the remaining time later
+		wheel.postDelayed(wakeRunnable, (waitNanos + 999999) / 1000000);
+	}
+
+	/**
+	 * Posts frame callback if it is not posted
+	 * @param clock the clock
+	 */
+	private void postFrame(WheelFrameClock clock) {
+		if (postedClock == null) {
+			postedClock = clock;
+			clock.postFrameCallback(this);
+		}
+	}
+
+	/**
+	 * Notifies listener about its pending change
+	 * @param entry the listener entry
+	 */
+	private void dispatch(Entry entry) {
+		entry.hasPending = false;
+		if (entry.pendingOld != entry.pendingNew) {
+			entry.listener.onChanged(wheel, entry.pendingOld, entry.pendingNew);
+		}
+	}
+}
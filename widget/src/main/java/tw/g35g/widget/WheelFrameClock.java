@@ -0,0 +1,51 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+/**
+ * Source of animation frames for the wheel scrolling. Callbacks are called once,
+ * on the next display frame, with the frame time.
+ * <p>The default clock is driven by the Choreographer. Another clock can be set to drive
+ * several wheels together, or to step animations by hand without a display.
+ */
+public interface WheelFrameClock {
+	/**
+	 * Frame callback interface
+	 */
+	interface FrameCallback {
+		/**
+		 * Called when a frame is rendered
+		 * @param frameTimeNanos the frame time in nanoseconds, in the System.nanoTime() time base
+		 */
+		void doFrame(long frameTimeNanos);
+	}
+
+	/**
+	 * Posts callback to be called on the next frame. Does nothing if the callback is already posted.
+	 * @param callback the callback
+	 */
+	void postFrameCallback(FrameCallback callback);
+
+	/**
+	 * Removes posted callback
+	 * @param callback the callback
+	 */
+	void removeFrameCallback(FrameCallback callback);
+}
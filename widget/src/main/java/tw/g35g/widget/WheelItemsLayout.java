@@ -0,0 +1,415 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.util.AttributeSet;
+import android.view.Gravity;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+/**
+ * Container of the wheel item views, stacked vertically.
+ * <p>Items are kept in a circular buffer instead of the child array, so adding or removing
+ * an item at either end does not shift the other items. Items are positioned while drawing,
+ * so views which did not change are not laid out again when the window slides.
+ * <p>Item layout parameters are read the same way as in a vertical LinearLayout:
+ * margins and horizontal layout gravity are supported.
+ * <p>When the fixed item size is set, items are measured only when they are added or request layout.
+ */
+public class WheelItemsLayout extends ViewGroup {
+
+    // Circular buffer of item views
+    private View[] items = new View[8];
+
+    // Position of the first item in buffer
+    private int head;
+
+    // Count of items
+    private int count;
+
+    // Fixed size of items, 0 if items are measured by their layout parameters
+    private int fixedItemWidth;
+    private int fixedItemHeight;
+
+    // Measure specs of the last measuring
+    private int lastWidthMeasureSpec;
+    private int lastHeightMeasureSpec;
+
+    /**
+     * Constructor
+     *
+     * @param context the context
+     */
+    public WheelItemsLayout(Context context) {
+        super(context);
+    }
+
+    /**
+     * Sets fixed size of items. Items are measured exactly to the fixed height and
+     * the layout width, their layout parameters are left as they are, so the views
+     * are not changed when they are recycled to other layouts or the size is reset.
+     * The fixed width is used if the layout width is not exact.
+     * Margins and gravity of items are ignored.
+     *
+     * @param width  the item width in pixels, 0 to measure items
+     * @param height the item height in pixels, 0 to measure items
+     */
+    public void setFixedItemSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            width = 0;
+            height = 0;
+        }
+        if (fixedItemWidth != width || fixedItemHeight != height) {
+            fixedItemWidth = width;
+            fixedItemHeight = height;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Tests if the fixed item size is set
+     *
+     * @return true if items have the fixed size
+     */
+    public boolean hasFixedItemSize() {
+        return fixedItemHeight > 0;
+    }
+
+    /**
+     * Gets count of items
+     *
+     * @return the count of items
+     */
+    public int getItemCount() {
+        return count;
+    }
+
+    /**
+     * Gets item view
+     *
+     * @param position the position of item from the top, starting with 0
+     * @return the item view or null if position is out of bounds
+     */
+    public View getItemAt(int position) {
+        if (position < 0 || position >= count) {
+            return null;
+        }
+        return items[(head + position) % items.length];
+    }
+
+    /**
+     * Adds item view to the top
+     *
+     * @param view the item view
+     */
+    public void addFirst(View view) {
+        ensureLayoutParams(view);
+        ensureCapacity();
+        head = (head - 1 + items.length) % items.length;
+        items[head] = view;
+        count++;
+        requestLayout();
+    }
+
+    /**
+     * Adds item view to the bottom
+     *
+     * @param view the item view
+     */
+    public void addLast(View view) {
+        ensureLayoutParams(view);
+        ensureCapacity();
+        items[(head + count) % items.length] = view;
+        count++;
+        requestLayout();
+    }
+
+    /**
+     * Removes the top item view
+     *
+     * @return the removed view or null if there are no items
+     */
+    public View removeFirst() {
+        if (count == 0) {
+            return null;
+        }
+        View view = items[head];
+        items[head] = null;
+        head = (head + 1) % items.length;
+        count--;
+        return view;
+    }
+
+    /**
+     * Removes the bottom item view
+     *
+     * @return the removed view or null if there are no items
+     */
+    public View removeLast() {
+        if (count == 0) {
+            return null;
+        }
+        int tail = (head + count - 1) % items.length;
+        View view = items[tail];
+        items[tail] = null;
+        count--;
+        return view;
+    }
+
+    /**
+     * Removes all item views
+     */
+    public void removeAllItems() {
+        while (count > 0) {
+            removeLast();
+        }
+        head = 0;
+        requestLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        lastWidthMeasureSpec = widthMeasureSpec;
+        lastHeightMeasureSpec = heightMeasureSpec;
+
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < count; i++) {
+            View child = getItemAt(i);
+            measureItem(child, widthMeasureSpec, heightMeasureSpec);
+
+            ViewGroup.LayoutParams lp = getItemLayoutParams(child);
+            width = Math.max(width, child.getMeasuredWidth() + getLeftMargin(lp) + getRightMargin(lp));
+            height += child.getMeasuredHeight() + getTopMargin(lp) + getBottomMargin(lp);
+        }
+        if (hasFixedItemSize()) {
+            setMeasuredDimension(getFixedItemWidth(widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+        } else {
+            setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+        }
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        for (int i = 0; i < count; i++) {
+            layoutItem(getItemAt(i), r - l);
+        }
+    }
+
+    /**
+     * Measures and lays out only the items added or changed since the layout was measured,
+     * with the same measure specs and width. Items which were measured with these specs
+     * and do not request layout are skipped.
+     *
+     * @return the count of items laid out again
+     */
+    public int measureChangedItems() {
+        int width = getWidth();
+        int height = 0;
+        int changed = 0;
+        for (int i = 0; i < count; i++) {
+            View child = getItemAt(i);
+            measureItem(child, lastWidthMeasureSpec, lastHeightMeasureSpec);
+            if (child.isLayoutRequested() || child.getMeasuredWidth() != child.getWidth()
+                    || child.getMeasuredHeight() != child.getHeight()) {
+                layoutItem(child, width);
+                changed++;
+            }
+            ViewGroup.LayoutParams lp = getItemLayoutParams(child);
+            height += child.getMeasuredHeight() + getTopMargin(lp) + getBottomMargin(lp);
+        }
+        setMeasuredDimension(getMeasuredWidth(), resolveSize(height, lastHeightMeasureSpec));
+        return changed;
+    }
+
+    /**
+     * Measures item. Items of the fixed size are measured only if they are not measured
+     * at this size yet or request layout.
+     *
+     * @param child             the item view
+     * @param widthMeasureSpec  the width measure spec of layout
+     * @param heightMeasureSpec the height measure spec of layout
+     */
+    private void measureItem(View child, int widthMeasureSpec, int heightMeasureSpec) {
+        if (hasFixedItemSize()) {
+            int width = getFixedItemWidth(widthMeasureSpec);
+            if (child.isLayoutRequested() || child.getMeasuredWidth() != width
+                    || child.getMeasuredHeight() != fixedItemHeight) {
+                child.measure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY),
+                        MeasureSpec.makeMeasureSpec(fixedItemHeight, MeasureSpec.EXACTLY));
+            }
+            return;
+        }
+        ViewGroup.LayoutParams lp = child.getLayoutParams();
+        int horizontalMargins = getLeftMargin(lp) + getRightMargin(lp);
+        int verticalMargins = getTopMargin(lp) + getBottomMargin(lp);
+        child.measure(getChildMeasureSpec(widthMeasureSpec, horizontalMargins, getWidth(lp)),
+                getChildMeasureSpec(heightMeasureSpec, verticalMargins, getHeight(lp)));
+    }
+
+    /**
+     * Lays out item horizontally
+     *
+     * @param child the item view
+     * @param width the layout width
+     */
+    private void layoutItem(View child, int width) {
+        int childWidth = child.getMeasuredWidth();
+        int left = 0;
+        if (!hasFixedItemSize()) {
+            ViewGroup.LayoutParams lp = child.getLayoutParams();
+            int gravity = getGravity(lp);
+            if (gravity >= 0) {
+                gravity = Gravity.getAbsoluteGravity(gravity, getLayoutDirection());
+            }
+            switch (gravity & Gravity.HORIZONTAL_GRAVITY_MASK) {
+                case Gravity.CENTER_HORIZONTAL:
+                    left = (width - childWidth) / 2 + getLeftMargin(lp) - getRightMargin(lp);
+                    break;
+                case Gravity.RIGHT:
+                    left = width - childWidth - getRightMargin(lp);
+                    break;
+                default:
+                    left = getLeftMargin(lp);
+                    break;
+            }
+        }
+        // vertical position is applied while drawing
+        child.layout(left, 0, left + childWidth, child.getMeasuredHeight());
+    }
+
+    /**
+     * Gets width of the fixed size items
+     *
+     * @param widthMeasureSpec the width measure spec of layout
+     * @return the layout width if it is exact, otherwise the fixed item width
+     */
+    private int getFixedItemWidth(int widthMeasureSpec) {
+        return MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.EXACTLY
+                ? MeasureSpec.getSize(widthMeasureSpec) : fixedItemWidth;
+    }
+
+    /**
+     * Gets layout parameters of item to read margins
+     *
+     * @param child the item view
+     * @return the layout parameters or null if margins are ignored
+     */
+    private ViewGroup.LayoutParams getItemLayoutParams(View child) {
+        return hasFixedItemSize() ? null : child.getLayoutParams();
+    }
+
+    @Override
+    protected void dispatchDraw(Canvas canvas) {
+        int top = 0;
+        for (int i = 0; i < count; i++) {
+            View child = getItemAt(i);
+            ViewGroup.LayoutParams lp = getItemLayoutParams(child);
+            top += getTopMargin(lp);
+
+            canvas.save();
+            canvas.translate(child.getLeft(), top);
+            child.draw(canvas);
+            canvas.restore();
+
+            top += child.getHeight() + getBottomMargin(lp);
+        }
+    }
+
+    @Override
+    public ViewGroup.LayoutParams generateLayoutParams(AttributeSet attrs) {
+        return new LinearLayout.LayoutParams(getContext(), attrs);
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateDefaultLayoutParams() {
+        return new LinearLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+    }
+
+    @Override
+    protected ViewGroup.LayoutParams generateLayoutParams(ViewGroup.LayoutParams p) {
+        return new LinearLayout.LayoutParams(p);
+    }
+
+    @Override
+    protected boolean checkLayoutParams(ViewGroup.LayoutParams p) {
+        return p instanceof LinearLayout.LayoutParams;
+    }
+
+    /**
+     * Sets default layout parameters to view without them, as ViewGroup.addView() does.
+     * Views like TextView expect to have layout parameters once they are measured.
+     *
+     * @param view the item view
+     */
+    private void ensureLayoutParams(View view) {
+        if (view.getLayoutParams() == null) {
+            view.setLayoutParams(generateDefaultLayoutParams());
+        }
+    }
+
+    /**
+     * Doubles the buffer capacity if it is full
+     */
+    private void ensureCapacity() {
+        if (count < items.length) {
+            return;
+        }
+        View[] newItems = new View[items.length * 2];
+        for (int i = 0; i < count; i++) {
+            newItems[i] = items[(head + i) % items.length];
+        }
+        items = newItems;
+        head = 0;
+    }
+
+    // Layout parameters of other ViewGroups are read without margins and gravity
+
+    private static int getWidth(ViewGroup.LayoutParams lp) {
+        return lp.width;
+    }
+
+    private static int getHeight(ViewGroup.LayoutParams lp) {
+        return lp.height;
+    }
+
+    private static int getGravity(ViewGroup.LayoutParams lp) {
+        return lp instanceof LinearLayout.LayoutParams ? ((LinearLayout.LayoutParams) lp).gravity : -1;
+    }
+
+    private static int getLeftMargin(ViewGroup.LayoutParams lp) {
+        return lp instanceof MarginLayoutParams ? ((MarginLayoutParams) lp).leftMargin : 0;
+    }
+
+    private static int getRightMargin(ViewGroup.LayoutParams lp) {
+        return lp instanceof MarginLayoutParams ? ((MarginLayoutParams) lp).rightMargin : 0;
+    }
+
+    private static int getTopMargin(ViewGroup.LayoutParams lp) {
+        return lp instanceof MarginLayoutParams ? ((MarginLayoutParams) lp).topMargin : 0;
+    }
+
+    private static int getBottomMargin(ViewGroup.LayoutParams lp) {
+        return lp instanceof MarginLayoutParams ? ((MarginLayoutParams) lp).bottomMargin : 0;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+/**
+ * Array-backed list of listeners. The array is copied when a listener is added or removed,
+ * so notifying listeners loops over a snapshot without allocating, and listeners may
+ * add or remove listeners while they are notified.
+ * @param <T> the listener type
+ */
+class WheelListenerList<T> {
+	// Shared empty array
+	private static final Object[] EMPTY = new Object[0];
+
+	// Listeners
+	private Object[] listeners = EMPTY;
+
+	/**
+	 * Adds listener
+	 * @param listener the listener
+	 */
+	void add(T listener) {
+		Object[] newListeners = new Object[listeners.length + 1];
+		System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+
+	/**
+	 * Removes the first occurrence of listener
+	 * @param listener the listener
+	 */
+	void remove(T listener) {
+		for (int i = 0; i < listeners.length; i++) {
+			if (listeners[i].equals(listener)) {
+				Object[] newListeners = listeners.length == 1 ? EMPTY : new Object[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+				listeners = newListeners;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the current listeners. The array must not be modified.
+	 * @return the listeners array, it is not changed when listeners are added or removed
+	 */
+	Object[] array() {
+		return listeners;
+	}
+}
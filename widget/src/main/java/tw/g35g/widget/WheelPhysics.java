@@ -0,0 +1,85 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+/**
+ * Motion model of the wheel scrolling. It animates one coordinate, in pixels,
+ * and is driven by explicit frame times, so it can be tested without a display.
+ * <p>A motion starts at the time of the first update() after fling() or scroll().
+ * Implementations keep their state in primitive fields and do not allocate while updating.
+ */
+public interface WheelPhysics {
+	/**
+	 * Starts a fling
+	 * @param start the start position
+	 * @param velocity the initial velocity in pixels per second
+	 */
+	void fling(float start, float velocity);
+
+	/**
+	 * Starts scrolling to the position
+	 * @param start the start position
+	 * @param end the final position
+	 * @param durationMillis the desired duration of scrolling
+	 */
+	void scroll(float start, float end, int durationMillis);
+
+	/**
+	 * Changes the final position of the running motion, keeping its current position and velocity
+	 * @param position the new final position
+	 */
+	void setFinalPosition(float position);
+
+	/**
+	 * Gets the final position of the running motion
+	 * @return the position where the motion stops
+	 */
+	float getFinalPosition();
+
+	/**
+	 * Computes position at the time
+	 * @param timeNanos the frame time in nanoseconds
+	 * @return true if the motion is still running
+	 */
+	boolean update(long timeNanos);
+
+	/**
+	 * Gets the position computed by the last update
+	 * @return the current position
+	 */
+	float getPosition();
+
+	/**
+	 * Gets the velocity computed by the last update
+	 * @return the current velocity in pixels per second
+	 */
+	float getVelocity();
+
+	/**
+	 * Tests if the motion is finished
+	 * @return true if there is no running motion
+	 */
+	boolean isFinished();
+
+	/**
+	 * Stops the motion at the current position
+	 */
+	void stop();
+}
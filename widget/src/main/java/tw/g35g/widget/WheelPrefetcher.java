@@ -0,0 +1,188 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import android.view.View;
+
+/**
+ * Ready queue of item views bound ahead of time, before they are scrolled into the wheel.
+ */
+class WheelPrefetcher {
+	// Item numbers and views bound for them
+	private int[] indexes = new int[0];
+	private View[] views = new View[0];
+
+	// Count of ready views
+	private int count;
+
+	// Statistics
+	private int hitCount;
+	private int missCount;
+
+	/**
+	 * Sets maximum count of ready views
+	 * @param capacity the count of views
+	 * @param recycle the recycle to return dropped views to
+	 */
+	void setCapacity(int capacity, WheelRecycle recycle) {
+		while (count > capacity) {
+			drop(count - 1, recycle);
+		}
+		int[] newIndexes = new int[capacity];
+		View[] newViews = new View[capacity];
+		System.arraycopy(indexes, 0, newIndexes, 0, count);
+		System.arraycopy(views, 0, newViews, 0, count);
+		indexes = newIndexes;
+		views = newViews;
+	}
+
+	/**
+	 * Gets maximum count of ready views
+	 * @return the count of views
+	 */
+	int getCapacity() {
+		return views.length;
+	}
+
+	/**
+	 * Tests whether view for the item is ready
+	 * @param index the item number
+	 * @return true if view is ready
+	 */
+	boolean contains(int index) {
+		return find(index) >= 0;
+	}
+
+	/**
+	 * Tests whether the queue can take one more view
+	 * @return true if the queue is full
+	 */
+	boolean isFull() {
+		return count == views.length;
+	}
+
+	/**
+	 * Adds ready view for the item
+	 * @param index the item number
+	 * @param view the bound view
+	 */
+	void put(int index, View view) {
+		indexes[count] = index;
+		views[count] = view;
+		count++;
+	}
+
+	/**
+	 * Takes ready view for the item out of the queue
+	 * @param index the item number
+	 * @param counted if true then the result is counted as a prefetch hit or miss
+	 * @return the view or null if view for the item is not ready
+	 */
+	View take(int index, boolean counted) {
+		int position = find(index);
+		if (position < 0) {
+			if (counted) {
+				missCount++;
+			}
+			return null;
+		}
+		View view = views[position];
+		remove(position);
+		if (counted) {
+			hitCount++;
+		}
+		return view;
+	}
+
+	/**
+	 * Returns views for items out of the range to recycle
+	 * @param first the first item number to keep
+	 * @param last the last item number to keep
+	 * @param recycle the recycle
+	 */
+	void retain(int first, int last, WheelRecycle recycle) {
+		for (int i = count - 1; i >= 0; i--) {
+			if (indexes[i] < first || indexes[i] > last) {
+				drop(i, recycle);
+			}
+		}
+	}
+
+	/**
+	 * Returns all ready views to recycle
+	 * @param recycle the recycle
+	 */
+	void clear(WheelRecycle recycle) {
+		while (count > 0) {
+			drop(count - 1, recycle);
+		}
+	}
+
+	/**
+	 * Gets count of items which were scrolled in with a ready view
+	 * @return the count of hits
+	 */
+	int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Gets count of items which were scrolled in and had to be bound during drawing
+	 * @return the count of misses
+	 */
+	int getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Finds position of the item in queue
+	 * @param index the item number
+	 * @return the position or -1 if view for the item is not ready
+	 */
+	private int find(int index) {
+		for (int i = 0; i < count; i++) {
+			if (indexes[i] == index) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns view at the position to recycle
+	 * @param position the position in queue
+	 * @param recycle the recycle
+	 */
+	private void drop(int position, WheelRecycle recycle) {
+		recycle.recycleView(views[position], indexes[position]);
+		remove(position);
+	}
+
+	/**
+	 * Removes view at the position from queue
+	 * @param position the position in queue
+	 */
+	private void remove(int position) {
+		count--;
+		indexes[position] = indexes[count];
+		views[position] = views[count];
+		views[count] = null;
+	}
+}
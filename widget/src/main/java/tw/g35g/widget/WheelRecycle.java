@@ -19,21 +19,20 @@
 
 package tw.g35g.widget;
 
-import java.util.LinkedList;
-import java.util.List;
-
 import android.view.View;
-import android.widget.LinearLayout;
 
 /**
  * Recycle stores wheel items to reuse. 
+ * Items are kept in a {@link WheelRecyclePool}, which has a separate cache for every
+ * view type reported by the adapter, so a cached view is only ever handed back
+ * for an item of the same layout.
  */
 public class WheelRecycle {
-	// Cached items
-	private List<View> items;
+	// Pool of cached items
+	private WheelRecyclePool pool = new WheelRecyclePool();
 	
-	// Cached empty items
-	private List<View> emptyItems;
+	// Whether the pool is set from outside and may be used by other wheels
+	private boolean poolShared;
 	
 	// Wheel view
 	private WheelView wheel;
@@ -46,6 +45,36 @@ public class WheelRecycle {
 		this.wheel = wheel;
 	}
 
+	/**
+	 * Sets pool to store cached items. 
+	 * @param pool the pool shared with other wheels, or null to use a private pool
+	 */
+	public void setPool(WheelRecyclePool pool) {
+		if (pool != null) {
+			this.pool = pool;
+			poolShared = true;
+		} else if (poolShared) {
+			this.pool = new WheelRecyclePool();
+			poolShared = false;
+		}
+	}
+	
+	/**
+	 * Gets pool storing cached items
+	 * @return the pool
+	 */
+	public WheelRecyclePool getPool() {
+		return pool;
+	}
+	
+	/**
+	 * Tests if the pool is set from outside and may be used by other wheels
+	 * @return true if the pool is shared
+	 */
+	public boolean isPoolShared() {
+		return poolShared;
+	}
+
 	/**
 	 * Recycles items from specified layout.
 	 * There are saved only items not included to specified range.
@@ -56,29 +85,27 @@ public class WheelRecycle {
 	 * @param range the range of current wheel items 
 	 * @return the new value of first item number
 	 */
-	public int recycleItems(LinearLayout layout, int firstItem, ItemsRange range) {
-		int index = firstItem;
-		for (int i = 0; i < layout.getChildCount();) {
-			if (!range.contains(index)) {
-				recycleView(layout.getChildAt(i), index);
-				layout.removeViewAt(i);
-				if (i == 0) { // first item
-					firstItem++;
-				}
-			} else {
-				i++; // go to next item
-			}
-			index++;
+	public int recycleItems(WheelItemsLayout layout, int firstItem, ItemsRange range) {
+		// the range is continuous, so only items at the ends can be out of it
+		while (layout.getItemCount() > 0 && !range.contains(firstItem)) {
+			recycleView(layout.removeFirst(), firstItem);
+			firstItem++;
+		}
+		int lastItem = firstItem + layout.getItemCount() - 1;
+		while (layout.getItemCount() > 0 && !range.contains(lastItem)) {
+			recycleView(layout.removeLast(), lastItem);
+			lastItem--;
 		}
 		return firstItem;
 	}
 	
 	/**
-	 * Gets item view
+	 * Gets item view of the specified type
+	 * @param viewType the view type
 	 * @return the cached view
 	 */
-	public View getItem() {
-		return getCachedView(items);
+	public View getItem(int viewType) {
+		return pool.getRecycledView(viewType);
 	}
 
 	/**
@@ -86,68 +113,80 @@ public class WheelRecycle {
 	 * @return the cached empty view
 	 */
 	public View getEmptyItem() {
-		return getCachedView(emptyItems);
+		return pool.getRecycledView(WheelRecyclePool.EMPTY_ITEM_TYPE);
+	}
+	
+	/**
+	 * Adds view created in advance to cache
+	 * @param view the view to be cached
+	 * @param viewType the view type or WheelRecyclePool.EMPTY_ITEM_TYPE
+	 */
+	public void addPreparedView(View view, int viewType) {
+		setViewType(view, viewType);
+		pool.putRecycledView(viewType, view);
+	}
+	
+	/**
+	 * Marks view as created for the specified view type.
+	 * The type is used to choose the cache when the view is recycled.
+	 * @param view the item view
+	 * @param viewType the view type or WheelRecyclePool.EMPTY_ITEM_TYPE
+	 */
+	public static void setViewType(View view, int viewType) {
+		view.setTag(R.id.wheel_view_type, viewType);
 	}
 	
 	/**
-	 * Clears all views 
+	 * Frees cached views according to the memory pressure.
+	 * @param level the memory trim level, see ComponentCallbacks2
+	 */
+	public void trimMemory(int level) {
+		pool.trimMemory(level);
+	}
+	
+	/**
+	 * Clears all views. Views of a shared pool are kept for other wheels.
 	 */
 	public void clearAll() {
-		if (items != null) {
-			items.clear();
-		}
-		if (emptyItems != null) {
-			emptyItems.clear();
+		if (!poolShared) {
+			pool.clear();
 		}
 	}
 
 	/**
-	 * Adds view to specified cache. Creates a cache list if it is null.
+	 * Adds view to cache. Determines view type by the view tag,
+	 * or by index when the view was not marked.
 	 * @param view the view to be cached
-	 * @param cache the cache list
-	 * @return the cache list
+	 * @param index the index of view
 	 */
-	private List<View> addView(View view, List<View> cache) {
-		if (cache == null) {
-			cache = new LinkedList<View>();
+	void recycleView(View view, int index) {
+		int viewType;
+		Object tag = view.getTag(R.id.wheel_view_type);
+		if (tag instanceof Integer) {
+			viewType = (Integer) tag;
+		} else {
+			viewType = getViewType(index);
 		}
-		
-		cache.add(view);
-		return cache;
+
+		pool.putRecycledView(viewType, view);
 	}
 
 	/**
-	 * Adds view to cache. Determines view type (item view or empty one) by index.
-	 * @param view the view to be cached
+	 * Gets view type of item by its index. 
 	 * @param index the index of view
+	 * @return the view type or WheelRecyclePool.EMPTY_ITEM_TYPE
 	 */
-	private void recycleView(View view, int index) {
+	private int getViewType(int index) {
 		int count = wheel.getViewAdapter().getItemsCount();
 
 		if ((index < 0 || index >= count) && !wheel.isCyclic()) {
-			// empty view
-			emptyItems = addView(view, emptyItems);
-		} else {
-			while (index < 0) {
-				index = count + index;
-			}
-			index %= count;
-			items = addView(view, items);
+			return WheelRecyclePool.EMPTY_ITEM_TYPE;
 		}
-	}
-	
-	/**
-	 * Gets view from specified cache.
-	 * @param cache the cache
-	 * @return the first view from cache.
-	 */
-	private View getCachedView(List<View> cache) {
-		if (cache != null && cache.size() > 0) {
-			View view = cache.get(0);
-			cache.remove(0);
-			return view;
+		while (index < 0) {
+			index = count + index;
 		}
-		return null;
+		index %= count;
+		return wheel.getViewAdapter().getItemViewType(index);
 	}
 
 }
@@ -0,0 +1,381 @@
+/*
+ *  Android Wheel Control.
+ *  https://code.google.com/p/android-wheel/
+ *
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package tw.g35g.widget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import android.content.ComponentCallbacks2;
+import android.view.View;
+
+/**
+ * Pool of recycled wheel item views.
+ * <p>A pool can be shared by several wheels, see {@link WheelView#setRecyclePool(WheelRecyclePool)}.
+ * All the adapters of wheels sharing a pool must use the same view types for the same item layouts.
+ * <p>The pool is bounded per view type and in total. When a limit is reached the least recently
+ * recycled view is evicted. Call {@link #trimMemory(int)} to free views on memory pressure.
+ */
+public class WheelRecyclePool {
+	/** View type used for the empty items */
+	public static final int EMPTY_ITEM_TYPE = -1;
+
+	/** Default maximum count of recycled views kept for every view type */
+	public static final int DEFAULT_MAX_RECYCLED_VIEWS = 32;
+
+	/** Default maximum count of recycled views kept by the pool */
+	public static final int DEFAULT_MAX_RETAINED_VIEWS = 64;
+
+	// Recycled views, one cache per view type; the empty items are stored first
+	private List<ScrapHeap> scraps = new ArrayList<ScrapHeap>();
+
+	// Maximum count of recycled views per view type, stored like the scraps
+	private int[] maxScraps = new int[0];
+
+	// Maximum count of recycled views of all types
+	private int maxRetained = DEFAULT_MAX_RETAINED_VIEWS;
+
+	// Count of recycled views of all types
+	private int retainedCount;
+
+	// Recycling order, used to find the least recently recycled view
+	private long recycleStamp;
+
+	// Statistics
+	private int hitCount;
+	private int missCount;
+	private int evictedCount;
+
+	/**
+	 * Gets recycled view of the specified type
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @return the most recently recycled view or null if there is no view of this type
+	 */
+	public View getRecycledView(int viewType) {
+		int position = viewType + 1;
+		View view = null;
+		if (position >= 0 && position < scraps.size()) {
+			view = scraps.get(position).pollFirst();
+		}
+		if (view != null) {
+			retainedCount--;
+			hitCount++;
+		} else {
+			missCount++;
+		}
+		return view;
+	}
+
+	/**
+	 * Puts view to the pool. When the pool already keeps the maximum count of views
+	 * of this type or of all types, the least recently recycled view is evicted.
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @param view the view to be recycled
+	 * @return true if view is kept by the pool
+	 */
+	public boolean putRecycledView(int viewType, View view) {
+		if (viewType < EMPTY_ITEM_TYPE || getMaxRecycledViews(viewType) <= 0 || maxRetained <= 0) {
+			evictedCount++;
+			return false;
+		}
+		ScrapHeap scrap = getScrap(viewType);
+		if (scrap.size() >= getMaxRecycledViews(viewType)) {
+			evict(scrap);
+		}
+		if (retainedCount >= maxRetained) {
+			evictOldest();
+		}
+		scrap.pushFirst(view, recycleStamp++);
+		retainedCount++;
+		return true;
+	}
+
+	/**
+	 * Sets maximum count of recycled views kept for the specified view type
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @param max the maximum count of views
+	 */
+	public void setMaxRecycledViews(int viewType, int max) {
+		if (viewType < EMPTY_ITEM_TYPE) {
+			throw new IllegalArgumentException("Invalid view type " + viewType);
+		}
+		ScrapHeap scrap = getScrap(viewType);
+		maxScraps[viewType + 1] = max;
+		while (scrap.size() > max) {
+			evict(scrap);
+		}
+	}
+
+	/**
+	 * Gets maximum count of recycled views kept for the specified view type
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @return the maximum count of views
+	 */
+	public int getMaxRecycledViews(int viewType) {
+		int position = viewType + 1;
+		if (position >= 0 && position < maxScraps.length) {
+			return maxScraps[position];
+		}
+		return DEFAULT_MAX_RECYCLED_VIEWS;
+	}
+
+	/**
+	 * Sets maximum count of recycled views kept by the pool for all view types together
+	 * @param max the maximum count of views
+	 */
+	public void setMaxRetainedViews(int max) {
+		maxRetained = max;
+		trimToSize(max);
+	}
+
+	/**
+	 * Gets maximum count of recycled views kept by the pool for all view types together
+	 * @return the maximum count of views
+	 */
+	public int getMaxRetainedViews() {
+		return maxRetained;
+	}
+
+	/**
+	 * Frees recycled views according to the memory pressure.
+	 * The level is one of the ComponentCallbacks2.TRIM_MEMORY_* constants,
+	 * as passed to onTrimMemory().
+	 * @param level the memory trim level
+	 */
+	public void trimMemory(int level) {
+		int keep;
+		if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) {
+			keep = 0;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND) {
+			keep = retainedCount / 8;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+			// includes TRIM_MEMORY_UI_HIDDEN, a more severe level never keeps more views
+			keep = retainedCount / 4;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+			keep = retainedCount / 2;
+		} else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+			keep = retainedCount * 3 / 4;
+		} else {
+			keep = retainedCount;
+		}
+		trimToSize(keep);
+	}
+
+	/**
+	 * Gets count of recycled views of the specified type
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @return the count of views kept by the pool
+	 */
+	public int getRecycledViewCount(int viewType) {
+		int position = viewType + 1;
+		if (position >= 0 && position < scraps.size()) {
+			return scraps.get(position).size();
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets count of recycled views of all types
+	 * @return the count of views kept by the pool
+	 */
+	public int getRetainedViewCount() {
+		return retainedCount;
+	}
+
+	/**
+	 * Gets count of requests served by a recycled view
+	 * @return the count of hits
+	 */
+	public int getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Gets count of requests which found no recycled view,
+	 * so adapter had to create a new one
+	 * @return the count of misses
+	 */
+	public int getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Gets count of views dropped because of the pool limits or memory trimming
+	 * @return the count of evicted views
+	 */
+	public int getEvictedViewCount() {
+		return evictedCount;
+	}
+
+	/**
+	 * Clears all views
+	 */
+	public void clear() {
+		trimToSize(0);
+	}
+
+	/**
+	 * Evicts the least recently recycled views until the pool keeps
+	 * not more than the specified count of views
+	 * @param size the count of views to keep
+	 */
+	private void trimToSize(int size) {
+		while (retainedCount > size) {
+			evictOldest();
+		}
+	}
+
+	/**
+	 * Evicts the least recently recycled view of all types
+	 */
+	private void evictOldest() {
+		ScrapHeap oldest = null;
+		for (int i = 0; i < scraps.size(); i++) {
+			ScrapHeap scrap = scraps.get(i);
+			if (scrap.size() > 0 && (oldest == null || scrap.peekLastStamp() < oldest.peekLastStamp())) {
+				oldest = scrap;
+			}
+		}
+		if (oldest != null) {
+			evict(oldest);
+		}
+	}
+
+	/**
+	 * Evicts the least recently recycled view of the specified cache
+	 * @param scrap the cache
+	 */
+	private void evict(ScrapHeap scrap) {
+		if (scrap.pollLast() != null) {
+			retainedCount--;
+			evictedCount++;
+		}
+	}
+
+	/**
+	 * Gets cache for the specified view type. Creates it if necessary.
+	 * @param viewType the view type or EMPTY_ITEM_TYPE
+	 * @return the cache
+	 */
+	private ScrapHeap getScrap(int viewType) {
+		int position = viewType + 1;
+		while (scraps.size() <= position) {
+			scraps.add(new ScrapHeap());
+		}
+		if (maxScraps.length <= position) {
+			int length = maxScraps.length;
+			maxScraps = Arrays.copyOf(maxScraps, position + 1);
+			Arrays.fill(maxScraps, length, maxScraps.length, DEFAULT_MAX_RECYCLED_VIEWS);
+		}
+		return scraps.get(position);
+	}
+
+	/**
+	 * Deque of recycled views of one type. Every view keeps the order number
+	 * it was recycled with. The most recently recycled view is the first one.
+	 */
+	private static class ScrapHeap {
+		// Ring buffers of views and their order numbers
+		private View[] views = new View[4];
+		private long[] stamps = new long[4];
+
+		// Position of the first view
+		private int head;
+
+		// Count of views
+		private int size;
+
+		/**
+		 * Gets count of views
+		 * @return the count of views
+		 */
+		int size() {
+			return size;
+		}
+
+		/**
+		 * Adds view to the head of deque
+		 * @param view the view
+		 * @param stamp the recycling order number
+		 */
+		void pushFirst(View view, long stamp) {
+			if (size == views.length) {
+				grow();
+			}
+			head = (head - 1 + views.length) % views.length;
+			views[head] = view;
+			stamps[head] = stamp;
+			size++;
+		}
+
+		/**
+		 * Removes the most recently recycled view
+		 * @return the view or null if deque is empty
+		 */
+		View pollFirst() {
+			if (size == 0) {
+				return null;
+			}
+			View view = views[head];
+			views[head] = null;
+			head = (head + 1) % views.length;
+			size--;
+			return view;
+		}
+
+		/**
+		 * Removes the least recently recycled view
+		 * @return the view or null if deque is empty
+		 */
+		View pollLast() {
+			if (size == 0) {
+				return null;
+			}
+			int tail = (head + size - 1) % views.length;
+			View view = views[tail];
+			views[tail] = null;
+			size--;
+			return view;
+		}
+
+		/**
+		 * Gets order number of the least recently recycled view
+		 * @return the order number
+		 */
+		long peekLastStamp() {
+			return stamps[(head + size - 1) % views.length];
+		}
+
+		/**
+		 * Doubles the buffers capacity
+		 */
+		private void grow() {
+			View[] newViews = new View[views.length * 2];
+			long[] newStamps = new long[views.length * 2];
+			for (int i = 0; i < size; i++) {
+				newViews[i] = views[(head + i) % views.length];
+				newStamps[i] = stamps[(head + i) % views.length];
+			}
+			views = newViews;
+			stamps = newStamps;
+			head = 0;
+		}
+	}
+}
@@ -20,13 +20,10 @@
 package tw.g35g.widget;
 
 import android.content.Context;
-import android.os.Handler;
-import android.os.Message;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.animation.Interpolator;
-import android.widget.Scroller;
 
 /**
  * Scroller class handles scrolling events and updates the 
@@ -56,6 +53,14 @@ public class WheelScroller {
          * Justifying callback called to justify a view when scrolling is ended
          */
         void onJustify();
+
+        /**
+         * Called when a fling is started to adjust the distance it will scroll,
+         * so that the fling stops at a justified position.
+         * @param distance the predicted distance of the fling
+         * @return the distance to scroll, with the same sign as the predicted one or 0
+         */
+        int adjustFlingDistance(int distance);
     }
     
     /** Scrolling duration */
@@ -67,15 +72,21 @@ public class WheelScroller {
     // Listener
     private ScrollingListener listener;
     
-    // Context
-    private Context context;
-    
     // Scrolling
     private GestureDetector gestureDetector;
-    private Scroller scroller;
+    private WheelPhysics physics;
     private int lastScrollY;
     private float lastTouchedY;
     private boolean isScrollingPerformed;
+    private int lastDistance;
+
+    // Animation frames
+    private WheelFrameClock frameClock;
+    private int animationMessage = MESSAGE_NONE;
+
+    // Touch scrolling collected since the last frame
+    private int pendingTouchDistance;
+    private boolean isTouchFramePosted = false;
 //
     float lastTouchedX;
     float upX;
@@ -88,19 +99,74 @@ public class WheelScroller {
         gestureDetector = new GestureDetector(context, gestureListener);
         gestureDetector.setIsLongpressEnabled(false);
         
-        scroller = new Scroller(context);
+        physics = new DecayPhysics();
+        frameClock = new ChoreographerFrameClock();
 
         this.listener = listener;
-        this.context = context;
     }
     
     /**
-     * Set the the specified scrolling interpolator
+     * Sets the clock which drives scrolling animations. The running animation continues
+     * on the new clock.
+     * @param clock the frame clock, null to use the Choreographer of the current thread
+     */
+    public void setFrameClock(WheelFrameClock clock) {
+        if (clock == null) {
+            clock = new ChoreographerFrameClock();
+        }
+        if (animationMessage != MESSAGE_NONE) {
+            frameClock.removeFrameCallback(frameCallback);
+            clock.postFrameCallback(frameCallback);
+        }
+        if (isTouchFramePosted) {
+            frameClock.removeFrameCallback(touchFrameCallback);
+            clock.postFrameCallback(touchFrameCallback);
+        }
+        frameClock = clock;
+    }
+
+    /**
+     * Gets the clock which drives scrolling animations
+     * @return the frame clock
+     */
+    public WheelFrameClock getFrameClock() {
+        return frameClock;
+    }
+
+    /**
+     * Sets the physics of scrolling animations. The running animation is stopped
+     * and the wheel is justified with the new physics.
+     * @param physics the physics, null to use DecayPhysics
+     */
+    public void setPhysics(WheelPhysics physics) {
+        if (physics == null) {
+            physics = new DecayPhysics();
+        }
+        this.physics.stop();
+        this.physics = physics;
+        if (animationMessage != MESSAGE_NONE) {
+            clearMessages();
+            justify();
+        }
+    }
+
+    /**
+     * Gets the physics of scrolling animations
+     * @return the physics
+     */
+    public WheelPhysics getPhysics() {
+        return physics;
+    }
+
+    /**
+     * Set the the specified scrolling interpolator. It is used by DecayPhysics
+     * to scroll to a position, other physics ignore it.
      * @param interpolator the interpolator
      */
     public void setInterpolator(Interpolator interpolator) {
-        scroller.forceFinished(true);
-        scroller = new Scroller(context, interpolator);
+        if (physics instanceof DecayPhysics) {
+            ((DecayPhysics) physics).setInterpolator(interpolator);
+        }
     }
     
     /**
@@ -109,11 +175,9 @@ public class WheelScroller {
      * @param time the scrolling duration
      */
     public void scroll(int distance, int time) {
-        scroller.forceFinished(true);
-
         lastScrollY = 0;
         
-        scroller.startScroll(0, 0, 0, distance, time != 0 ? time : SCROLLING_DURATION);
+        physics.scroll(0, distance, time != 0 ? time : SCROLLING_DURATION);
         setNextMessage(MESSAGE_SCROLL);
         
         startScrolling();
@@ -123,9 +187,29 @@ public class WheelScroller {
      * Stops scrolling
      */
     public void stopScrolling() {
-        scroller.forceFinished(true);
+        physics.stop();
     }
     
+    /**
+     * Gets direction of the last scrolling step
+     * @return 1 if the last distance passed to listener was positive, -1 if negative, 0 if there was none
+     */
+    public int getScrollDirection() {
+        return Integer.signum(lastDistance);
+    }
+
+    /**
+     * Gets distance left to the end of the current animation,
+     * in the same units as the distances passed to listener
+     * @return the remaining distance or 0 if scrolling is not animated
+     */
+    public int getRemainingDistance() {
+        if (physics.isFinished()) {
+            return 0;
+        }
+        return lastScrollY - Math.round(physics.getFinalPosition());
+    }
+
     /**
      * Handles Touch event 
      * @param event the motion event
@@ -134,9 +218,10 @@ public class WheelScroller {
     public boolean onTouchEvent(MotionEvent event) {
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
+                flushTouchScrolling();
                 lastTouchedY = event.getY();
                 lastTouchedX = event.getX();
-                scroller.forceFinished(true);
+                physics.stop();
                 clearMessages();
 
                 break;
@@ -155,10 +240,22 @@ public class WheelScroller {
                 }
                 if (distanceY != 0) {
                     startScrolling();
-                    listener.onScroll(distanceY);
+                    // the last position covers historical samples of the event,
+                    // and moves within a frame are scrolled together
+                    pendingTouchDistance += distanceY;
                     lastTouchedY = event.getY();
+                    if (!isTouchFramePosted) {
+                        isTouchFramePosted = true;
+                        frameClock.postFrameCallback(touchFrameCallback);
+                    }
                 }
                 break;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                // fling and justifying start from the last touched position
+                flushTouchScrolling();
+                break;
         }
         
         if (!gestureDetector.onTouchEvent(event) && event.getAction() == MotionEvent.ACTION_UP) {
@@ -169,6 +266,30 @@ public class WheelScroller {
         return true;
     }
     
+    // touch scrolling, done once per frame
+    private WheelFrameClock.FrameCallback touchFrameCallback = new WheelFrameClock.FrameCallback() {
+        public void doFrame(long frameTimeNanos) {
+            isTouchFramePosted = false;
+            flushTouchScrolling();
+        }
+    };
+
+    /**
+     * Scrolls by the touch moves collected since the last frame
+     */
+    private void flushTouchScrolling() {
+        if (isTouchFramePosted) {
+            isTouchFramePosted = false;
+            frameClock.removeFrameCallback(touchFrameCallback);
+        }
+        int distance = pendingTouchDistance;
+        pendingTouchDistance = 0;
+        if (distance != 0) {
+            lastDistance = distance;
+            listener.onScroll(distance);
+        }
+    }
+
     // gesture listener
     private SimpleOnGestureListener gestureListener = new SimpleOnGestureListener() {
         public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
@@ -181,57 +302,68 @@ public class WheelScroller {
         
         public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
             lastScrollY = 0;
-            final int maxY = 0x7FFFFFFF;
-            final int minY = -maxY;
-            scroller.fling(0, lastScrollY, 0, (int) -velocityY, 0, 0, minY, maxY);
+            physics.fling(lastScrollY, -velocityY);
+            // the fling decelerates to the adjusted position, so it does not need justifying
+            int distance = listener.adjustFlingDistance(lastScrollY - Math.round(physics.getFinalPosition()));
+            physics.setFinalPosition(lastScrollY - distance);
             setNextMessage(MESSAGE_SCROLL);
             //Log.i("TAG","onFling..");
             return true;
         }
     };
 
-    // Messages
-    private final int MESSAGE_SCROLL = 0;
-    private final int MESSAGE_JUSTIFY = 1;
+    // Messages, the animation step done on the next frame
+    private static final int MESSAGE_NONE = -1;
+    private static final int MESSAGE_SCROLL = 0;
+    private static final int MESSAGE_JUSTIFY = 1;
     
     /**
-     * Set next message to queue. Clears queue before.
+     * Sets animation step for the next frame, replacing the pending one.
      * 
      * @param message the message to set
      */
     private void setNextMessage(int message) {
-        clearMessages();
-        animationHandler.sendEmptyMessage(message);
+        if (animationMessage == MESSAGE_NONE) {
+            frameClock.postFrameCallback(frameCallback);
+        }
+        animationMessage = message;
     }
 
     /**
-     * Clears messages from queue
+     * Cancels the pending animation step
      */
     private void clearMessages() {
-        animationHandler.removeMessages(MESSAGE_SCROLL);
-        animationHandler.removeMessages(MESSAGE_JUSTIFY);
+        if (animationMessage != MESSAGE_NONE) {
+            animationMessage = MESSAGE_NONE;
+            frameClock.removeFrameCallback(frameCallback);
+        }
     }
     
-    // animation handler
-    private Handler animationHandler = new Handler() {
-        public void handleMessage(Message msg) {
-            scroller.computeScrollOffset();
-            int currY = scroller.getCurrY();
+    // animation step, done once per frame
+    private WheelFrameClock.FrameCallback frameCallback = new WheelFrameClock.FrameCallback() {
+        public void doFrame(long frameTimeNanos) {
+            int message = animationMessage;
+            animationMessage = MESSAGE_NONE;
+            if (message == MESSAGE_NONE) {
+                return;
+            }
+
+            physics.update(frameTimeNanos);
+            int currY = Math.round(physics.getPosition());
             int delta = lastScrollY - currY;
             lastScrollY = currY;
             if (delta != 0) {
+                lastDistance = delta;
                 listener.onScroll(delta);
             }
-            
-            // scrolling is not finished when it comes to final Y
-            // so, finish it manually 
-            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
-                currY = scroller.getFinalY();
-                scroller.forceFinished(true);
+
+            if (animationMessage != MESSAGE_NONE) {
+                // listener has started another animation
+                return;
             }
-            if (!scroller.isFinished()) {
-                animationHandler.sendEmptyMessage(msg.what);
-            } else if (msg.what == MESSAGE_SCROLL) {
+            if (!physics.isFinished()) {
+                setNextMessage(message);
+            } else if (message == MESSAGE_SCROLL) {
                 justify();
             } else {
                 finishScrolling();
@@ -244,7 +376,13 @@ public class WheelScroller {
      */
     private void justify() {
         listener.onJustify();
-        setNextMessage(MESSAGE_JUSTIFY);
+        if (physics.isFinished()) {
+            // already justified
+            clearMessages();
+            finishScrolling();
+        } else {
+            setNextMessage(MESSAGE_JUSTIFY);
+        }
     }
 
     /**
@@ -264,6 +402,7 @@ public class WheelScroller {
         if (isScrollingPerformed) {
             listener.onFinished();
             isScrollingPerformed = false;
+            lastDistance = 0;
         }
     }
 }
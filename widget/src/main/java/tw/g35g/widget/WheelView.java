@@ -19,16 +19,21 @@
 
 package tw.g35g.widget;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.concurrent.Future;
+
+import tw.g35g.widget.adapters.AbstractWheelTextAdapter;
 import tw.g35g.widget.adapters.WheelViewAdapter;
 import android.content.Context;
 import android.database.DataSetObserver;
+import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.Paint;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
 import android.graphics.drawable.GradientDrawable.Orientation;
+import android.os.Build;
+import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.view.Gravity;
@@ -86,6 +91,36 @@ public class WheelView extends View {
      */
     private static final int DEF_VISIBLE_ITEMS = 5;
 
+    /**
+     * Changing listener dispatch modes: every change is dispatched immediately,
+     * changes are coalesced and dispatched once per frame, at most at the given rate,
+     * or when the wheel stops scrolling
+     */
+    public static final int DISPATCH_IMMEDIATE = 0;
+    public static final int DISPATCH_PER_FRAME = 1;
+    public static final int DISPATCH_RATE_LIMITED = 2;
+    public static final int DISPATCH_SETTLED = 3;
+
+    /**
+     * Default maximum count of changes per second dispatched in DISPATCH_RATE_LIMITED mode
+     */
+    public static final int DEF_DISPATCH_RATE = 10;
+
+    /**
+     * Default count of items bound ahead while scrolling
+     */
+    private static final int DEF_PREFETCH_DISTANCE = 2;
+
+    /**
+     * Count of item views inflated in background in addition to the prefetched ones
+     */
+    private static final int INFLATE_AHEAD_MARGIN = 2;
+
+    /**
+     * Empty range, used to recycle all items. It is never changed.
+     */
+    private static final ItemsRange EMPTY_RANGE = new ItemsRange();
+
     // Wheel Values
     private int currentItem = 0;
 
@@ -95,37 +130,97 @@ public class WheelView extends View {
     // Item height
     private int itemHeight = 0;
 
+    // Fixed item size, 0 if items are measured
+    private int fixedItemWidth = 0;
+    private int fixedItemHeight = 0;
+
     // Center Line
     private Drawable centerDrawable;
 
     // Shadows drawables
     private GradientDrawable topShadow;
     private GradientDrawable bottomShadow;
+    private boolean isShadowsEnabled = false;
+
+    // Center line and shadows rendered to a bitmap, drawn over items
+    private Bitmap chromeCache;
+    private Canvas chromeCanvas;
+    private int chromeTop;
+    private int chromeWidth;
+    private int chromeHeight;
+    private int chromeItemHeight;
+    private boolean isChromeValid = false;
 
     // Scrolling
     private WheelScroller scroller;
     private boolean isScrollingPerformed;
     private int scrollingOffset;
 
+    // Spinning, listeners are notified about the change once when the spin lands
+    private boolean isSpinning = false;
+    private int spinStartItem;
+    private int spinTargetItem;
+
     // Cyclic
     boolean isCyclic = false;
 
     // Items layout
-    private LinearLayout itemsLayout;
+    private WheelItemsLayout itemsLayout;
 
     // The number of first item in layout
     private int firstItem;
 
+    // Range of visible items, reused for every calculation
+    private ItemsRange itemsRange = new ItemsRange();
+
+    // Full measuring of items is needed, because adapter, style or size is changed
+    private boolean isItemsLayoutStale = true;
+    private int itemsStyleVersion;
+
+    // Statistics of measuring items while drawing
+    private int fullMeasureCount;
+    private int incrementalMeasureCount;
+
     // View adapter
     private WheelViewAdapter viewAdapter;
 
     // Recycle
     private WheelRecycle recycle = new WheelRecycle(this);
+    private boolean isKeepRecycledViews = false;
+
+    // Drawing items as text without views
+    private boolean isTextRenderingEnabled = false;
+    private TextPaint textPaint;
+    private Paint.FontMetricsInt textMetrics;
+    private int textStyleVersion;
+    private char[] textBuffer = new char[32];
+
+    // Items bound ahead while scrolling
+    private WheelPrefetcher prefetcher = new WheelPrefetcher();
+    private boolean isPrefetchPosted = false;
+
+    // Item views inflated in background for the adapter
+    private Future<?> inflatingViews;
+
+    // Items rendered to a bitmap strip, which is drawn at the scrolling offset
+    private boolean isItemsCacheEnabled = false;
+    private Bitmap itemsCache;
+    private Canvas itemsCacheCanvas;
+    private boolean isItemsCacheValid = false;
+    private int itemsCacheRenderCount;
+    private int itemsCacheReuseCount;
+
+    // Statistics of traversal passes
+    private int measurePassCount;
+    private int layoutPassCount;
+    private int drawPassCount;
+    private int passesSinceDraw;
+    private int lastFrameTraversalCount;
 
     // Listeners
-    private List<OnWheelChangedListener> changingListeners = new LinkedList<OnWheelChangedListener>();
-    private List<OnWheelScrollListener> scrollingListeners = new LinkedList<OnWheelScrollListener>();
-    private List<OnWheelClickedListener> clickingListeners = new LinkedList<OnWheelClickedListener>();
+    private WheelChangeDispatcher changingListeners = new WheelChangeDispatcher(this);
+    private WheelListenerList<OnWheelScrollListener> scrollingListeners = new WheelListenerList<OnWheelScrollListener>();
+    private WheelListenerList<OnWheelClickedListener> clickingListeners = new WheelListenerList<OnWheelClickedListener>();
     // Swipe
     float downX;
     float downY;
@@ -151,6 +246,8 @@ public class WheelView extends View {
     private int actionButtonColor = Color.GREEN;
     private String actionButtonText = ">";
     private boolean isActionDeleteButtonTouched = false;
+    // buttons style is changed and has to be applied before measuring
+    private boolean isButtonStyleChanged = false;
     private int pastCurrentItem = -1;
     /**
      * Constructor
@@ -158,8 +255,6 @@ public class WheelView extends View {
     public WheelView(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
         initData(context);
-        initActionButton(context);
-        initDeleteButton(context);
     }
 
     /**
@@ -168,8 +263,6 @@ public class WheelView extends View {
     public WheelView(Context context, AttributeSet attrs) {
         super(context, attrs);
         initData(context);
-        initActionButton(context);
-        initDeleteButton(context);
     }
 
     /**
@@ -178,8 +271,6 @@ public class WheelView extends View {
     public WheelView(Context context) {
         super(context);
         initData(context);
-        initActionButton(context);
-        initDeleteButton(context);
     }
 
     /**
@@ -188,19 +279,32 @@ public class WheelView extends View {
      * @param context the context
      */
     private void initData(Context context) {
+        initResources();
         scroller = new WheelScroller(getContext(), scrollingListener);
+        prefetcher.setCapacity(DEF_PREFETCH_DISTANCE, recycle);
     }
 
-    private void initDeleteButton(Context context) {
-        //
+    /**
+     * Creates the action and delete buttons when one of them is enabled the first time
+     */
+    private void initButtonsIfNecessary() {
+        if (buttonLayout != null) {
+            return;
+        }
         buttonLayout = new LinearLayout(getContext());
         buttonLayout.setOrientation(LinearLayout.VERTICAL);
-        LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT, 1); // , 1是可選寫的
-        lp.setMargins(0, 0, 0, 0);
         buttonLayout.setLayoutParams(new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
+        initDeleteButton(getContext());
+        initActionButton(getContext());
+        buttonLayout.addView(deleteButton);
+        buttonLayout.addView(actionButton);
+        isButtonStyleChanged = true;
+    }
+
+    private void initDeleteButton(Context context) {
         //
         deleteButton = new Button(getContext());
-        lp = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.MATCH_PARENT, 1); // , 1是可選寫的
+        LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.MATCH_PARENT, 1); // , 1是可選寫的
         lp.setMargins(0, 0, 0, 0);
         deleteButton.setLayoutParams(lp);
         deleteButton.setFocusable(false);
@@ -296,11 +400,20 @@ public class WheelView extends View {
                 }
                 notifyScrollingListenersAboutEnd();
                 isScrollingPerformed = false;
+                if (isSpinning) {
+                    isSpinning = false;
+                    if (currentItem != spinStartItem) {
+                        notifyChangingListeners(spinStartItem, currentItem);
+                    }
+                }
                 notifyClickListenersSelected(currentItem);
             }
+            prefetcher.clear(recycle);
 
             scrollingOffset = 0;
             invalidate();
+            // coalesced changes are dispatched when the wheel settles
+            changingListeners.flush();
         }
 
         public void onJustify() {
@@ -308,8 +421,61 @@ public class WheelView extends View {
                 scroller.scroll(scrollingOffset, 0);
             }
         }
+
+        public int adjustFlingDistance(int distance) {
+            if (itemHeight <= 0) {
+                return distance;
+            }
+            // count of items the wheel is scrolled by at the end of fling
+            int offset = scrollingOffset + distance;
+            int count = (offset + (offset < 0 ? -itemHeight : itemHeight) / 2) / itemHeight;
+            if (!isCyclic && viewAdapter != null) {
+                // stop at the first or the last item
+                count = Math.max(count, currentItem - viewAdapter.getItemsCount() + 1);
+                count = Math.min(count, currentItem);
+            }
+            int adjusted = count * itemHeight - scrollingOffset;
+            return Integer.signum(adjusted) == Integer.signum(distance) ? adjusted : 0;
+        }
     };
 
+    /**
+     * Sets the clock which drives scrolling animations, see WheelFrameClock
+     *
+     * @param clock the frame clock, null to use the Choreographer of the current thread
+     */
+    public void setFrameClock(WheelFrameClock clock) {
+        scroller.setFrameClock(clock);
+    }
+
+    /**
+     * Gets the clock which drives scrolling animations
+     *
+     * @return the frame clock
+     */
+    public WheelFrameClock getFrameClock() {
+        return scroller.getFrameClock();
+    }
+
+    /**
+     * Sets the physics of scrolling animations, see DecayPhysics, SpringPhysics
+     * and CriticallyDampedPhysics
+     *
+     * @param physics the physics, null to use DecayPhysics
+     */
+    public void setPhysics(WheelPhysics physics) {
+        scroller.setPhysics(physics);
+    }
+
+    /**
+     * Gets the physics of scrolling animations
+     *
+     * @return the physics
+     */
+    public WheelPhysics getPhysics() {
+        return scroller.getPhysics();
+    }
+
     /**
      * Set the the specified scrolling interpolator
      *
@@ -319,6 +485,203 @@ public class WheelView extends View {
         scroller.setInterpolator(interpolator);
     }
 
+    /**
+     * Sets count of items bound ahead of the scrolling direction. The views for these items
+     * are bound between frames, so drawing only attaches views which are already bound.
+     *
+     * @param distance the count of items, 0 to disable prefetching
+     */
+    public void setPrefetchDistance(int distance) {
+        prefetcher.setCapacity(Math.max(distance, 0), recycle);
+    }
+
+    /**
+     * Gets count of items bound ahead of the scrolling direction
+     *
+     * @return the count of items
+     */
+    public int getPrefetchDistance() {
+        return prefetcher.getCapacity();
+    }
+
+    /**
+     * Gets count of items scrolled in with a prefetched view
+     *
+     * @return the count of prefetch hits
+     */
+    public int getPrefetchHitCount() {
+        return prefetcher.getHitCount();
+    }
+
+    /**
+     * Gets count of items scrolled in which had to be bound while drawing
+     *
+     * @return the count of prefetch misses
+     */
+    public int getPrefetchMissCount() {
+        return prefetcher.getMissCount();
+    }
+
+    /**
+     * Sets whether item views are rendered to a cached bitmap strip. While the wheel scrolls
+     * within the same items, frames only draw the strip at a new offset; the strip is rendered
+     * again when items enter or leave it, are rebound, or the wheel is invalidated.
+     * On API 21 and higher items which invalidate themselves are rendered again too,
+     * on older versions call invalidateWheel(false) when item views change their content.
+     * The cache is not used for items drawn as text, nor while an animation has more than
+     * one item to scroll, since items enter the strip on almost every frame then.
+     *
+     * @param enabled the flag to set
+     */
+    public void setItemsCacheEnabled(boolean enabled) {
+        if (isItemsCacheEnabled != enabled) {
+            isItemsCacheEnabled = enabled;
+            if (!enabled) {
+                releaseItemsCache();
+            }
+            invalidate();
+        }
+    }
+
+    /**
+     * Tests if item views are rendered to a cached bitmap strip
+     *
+     * @return true if the items cache is enabled
+     */
+    public boolean isItemsCacheEnabled() {
+        return isItemsCacheEnabled;
+    }
+
+    /**
+     * Gets count of frames which rendered item views to the cache
+     *
+     * @return the count of renderings
+     */
+    public int getItemsCacheRenderCount() {
+        return itemsCacheRenderCount;
+    }
+
+    /**
+     * Gets count of frames which drew the cached items without rendering them
+     *
+     * @return the count of reuses
+     */
+    public int getItemsCacheReuseCount() {
+        return itemsCacheReuseCount;
+    }
+
+    /**
+     * Frees bitmap of the items cache
+     */
+    private void releaseItemsCache() {
+        if (itemsCache != null) {
+            itemsCache.recycle();
+            itemsCache = null;
+            itemsCacheCanvas = null;
+        }
+        isItemsCacheValid = false;
+    }
+
+    /**
+     * Sets whether items are drawn directly on canvas as text, without creating item views.
+     * It is applied only to text adapters using the default text view for items,
+     * see AbstractWheelTextAdapter.canDrawItemsAsText(). Otherwise items views are used.
+     *
+     * @param enabled the flag to set
+     */
+    public void setTextRenderingEnabled(boolean enabled) {
+        if (isTextRenderingEnabled != enabled) {
+            isTextRenderingEnabled = enabled;
+            invalidateWheel(true);
+            requestLayout();
+        }
+    }
+
+    /**
+     * Tests if items are drawn as text when the adapter allows it
+     *
+     * @return true if text rendering is enabled
+     */
+    public boolean isTextRenderingEnabled() {
+        return isTextRenderingEnabled;
+    }
+
+    /**
+     * Tests if items are drawn as text now
+     *
+     * @return true if items are drawn as text
+     */
+    private boolean isTextRendering() {
+        return isTextRenderingEnabled && viewAdapter instanceof AbstractWheelTextAdapter
+                && ((AbstractWheelTextAdapter) viewAdapter).canDrawItemsAsText();
+    }
+
+    /**
+     * Applies text style of the adapter to the text paint if it is changed
+     *
+     * @return true if the paint is updated
+     */
+    private boolean updateTextPaint() {
+        AbstractWheelTextAdapter adapter = (AbstractWheelTextAdapter) viewAdapter;
+        if (textPaint != null && textStyleVersion == adapter.getTextStyleVersion()) {
+            return false;
+        }
+        if (textPaint == null) {
+            textPaint = new TextPaint();
+            textMetrics = new Paint.FontMetricsInt();
+        }
+        adapter.configureTextPaint(textPaint);
+        textPaint.getFontMetricsInt(textMetrics);
+        textStyleVersion = adapter.getTextStyleVersion();
+        return true;
+    }
+
+    /**
+     * Gets height of an item drawn as text
+     *
+     * @return the height of one text line
+     */
+    private int getTextItemHeight() {
+        return textMetrics.bottom - textMetrics.top;
+    }
+
+    /**
+     * Sets fixed size of items. The wheel size, the visible range and the scrolling offsets
+     * are then calculated from this size, so item views are not measured to build the wheel,
+     * and are measured once when they are bound at the fixed height.
+     * Item margins and gravity are ignored in this mode.
+     *
+     * @param widthPx  the item width in pixels, used if the wheel width is not exact;
+     *                 0 to measure items
+     * @param heightPx the item height in pixels, 0 to measure items
+     */
+    public void setFixedItemSize(int widthPx, int heightPx) {
+        if (widthPx <= 0 || heightPx <= 0) {
+            widthPx = 0;
+            heightPx = 0;
+        }
+        if (fixedItemWidth == widthPx && fixedItemHeight == heightPx) {
+            return;
+        }
+        fixedItemWidth = widthPx;
+        fixedItemHeight = heightPx;
+        itemHeight = heightPx;
+        createItemsLayout();
+        itemsLayout.setFixedItemSize(widthPx, heightPx);
+        isItemsLayoutStale = true;
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * Tests if the fixed item size is set
+     *
+     * @return true if items have the fixed size
+     */
+    public boolean hasFixedItemSize() {
+        return fixedItemHeight > 0;
+    }
+
     /**
      * Gets count of visible items
      *
@@ -361,6 +724,27 @@ public class WheelView extends View {
         }
     };
 
+    // Text style listener, the color is only redrawn and the size is measured again
+    private AbstractWheelTextAdapter.OnTextStyleChangedListener textStyleListener =
+            new AbstractWheelTextAdapter.OnTextStyleChangedListener() {
+        @Override
+        public void onTextStyleChanged(AbstractWheelTextAdapter adapter, boolean isSizeChanged) {
+            if (isTextRendering()) {
+                if (updateTextPaint() && isSizeChanged && !hasFixedItemSize()
+                        && itemHeight != getTextItemHeight()) {
+                    requestLayout();
+                }
+                invalidate();
+                return;
+            }
+            // item views get the new style when they are bound again
+            invalidateWheel(false);
+            if (isSizeChanged) {
+                requestLayout();
+            }
+        }
+    };
+
     /**
      * Sets view adapter. Usually new adapters contain different views, so
      * it needs to rebuild view by calling measure().
@@ -370,19 +754,78 @@ public class WheelView extends View {
     public void setViewAdapter(WheelViewAdapter viewAdapter) {
         if (this.viewAdapter != null) {
             this.viewAdapter.unregisterDataSetObserver(dataObserver);
+            if (this.viewAdapter instanceof AbstractWheelTextAdapter) {
+                ((AbstractWheelTextAdapter) this.viewAdapter).removeTextStyleListener(textStyleListener);
+            }
         }
         this.viewAdapter = viewAdapter;
         if (this.viewAdapter != null) {
             this.viewAdapter.registerDataSetObserver(dataObserver);
+            if (this.viewAdapter instanceof AbstractWheelTextAdapter) {
+                ((AbstractWheelTextAdapter) this.viewAdapter).addTextStyleListener(textStyleListener);
+            }
         }
+        // the style of new adapter has to be applied
+        textPaint = null;
 
         invalidateWheel(true);
+        inflateViewsAsync();
+    }
+
+    /**
+     * Starts inflating item views in background if the adapter supports it.
+     * The visible items are inflated when the wheel is measured, so the views which
+     * are needed next for scrolling and the empty items are inflated in background.
+     */
+    private void inflateViewsAsync() {
+        if (inflatingViews != null) {
+            // views of the old adapter are not needed anymore
+            inflatingViews.cancel(false);
+            inflatingViews = null;
+        }
+        if (!(viewAdapter instanceof AbstractWheelTextAdapter) || viewAdapter.getViewTypeCount() != 1
+                || isTextRendering()) {
+            return;
+        }
+        AbstractWheelTextAdapter adapter = (AbstractWheelTextAdapter) viewAdapter;
+        if (adapter.isAsyncInflationEnabled()) {
+            createItemsLayout();
+            int emptyItems = isCyclic ? 0 : visibleItems / 2 + 1;
+            inflatingViews = adapter.inflateViewsAsync(itemsLayout, prefetcher.getCapacity() + INFLATE_AHEAD_MARGIN,
+                    emptyItems, viewsInflatedListener);
+        }
     }
 
+    // Listener receiving views inflated in background
+    private AbstractWheelTextAdapter.OnViewsInflatedListener viewsInflatedListener =
+            new AbstractWheelTextAdapter.OnViewsInflatedListener() {
+        @Override
+        public void onViewsInflated(AbstractWheelTextAdapter adapter, View[] items, View[] emptyItems) {
+            if (adapter != viewAdapter) {
+                return; // adapter is changed already
+            }
+            inflatingViews = null;
+            // the views which failed to inflate are null, they are inflated when they are needed
+            for (View view : items) {
+                if (view != null) {
+                    recycle.addPreparedView(view, 0);
+                }
+            }
+            for (View view : emptyItems) {
+                if (view != null) {
+                    recycle.addPreparedView(view, WheelRecyclePool.EMPTY_ITEM_TYPE);
+                }
+            }
+        }
+    };
+
     /*
     action button set
      */
     public void setActionButtonEnabled(boolean flag) {
+        if (flag) {
+            initButtonsIfNecessary();
+        }
         actionButtonIsViaiable = (flag == true ? VISIBLE : INVISIBLE);
     }
 
@@ -392,20 +835,26 @@ public class WheelView extends View {
 
     public void setActionButtonFontSize(float size) {
         actionButtonFontSize = size;
+        onButtonStyleChanged();
     }
 
     public void setActionButtonText(String text) {
         actionButtonText = text;
+        onButtonStyleChanged();
     }
 
     public void setActionButtonTextColor(int color) {
         actionButtonColor = color;
+        onButtonStyleChanged();
     }
 
     /*
     delete button set
     */
     public void setDeleteButtonEnabled(boolean flag) {
+        if (flag) {
+            initButtonsIfNecessary();
+        }
         deleteButtonIsViaiable = (flag == true ? VISIBLE : INVISIBLE);
     }
 
@@ -415,24 +864,80 @@ public class WheelView extends View {
 
     public void setDeleteButtonFontSize(float size) {
         deleteButtonFontSize = size;
+        onButtonStyleChanged();
     }
 
     public void setDeleteButtonText(String text) {
         deleteButtonText = text;
+        onButtonStyleChanged();
     }
 
     public void setDeleteButtonTextColor(int color) {
         deleteButtonColor = color;
+        onButtonStyleChanged();
+    }
+
+    /**
+     * Marks buttons style to be applied before the next measuring
+     */
+    private void onButtonStyleChanged() {
+        if (buttonLayout != null) {
+            isButtonStyleChanged = true;
+            requestLayout();
+        }
+    }
+
+    /**
+     * Applies text, size and color to the buttons
+     */
+    private void applyButtonStyle() {
+        deleteButton.setTextSize(deleteButtonFontSize);
+        deleteButton.setText(deleteButtonText);
+        deleteButton.setLines(1);
+        deleteButton.setGravity(Gravity.CENTER);
+        deleteButton.setTextColor(deleteButtonColor);
+
+        actionButton.setTextSize(actionButtonFontSize);
+        actionButton.setText(actionButtonText);
+        actionButton.setLines(1);
+        actionButton.setGravity(Gravity.CENTER);
+        actionButton.setTextColor(actionButtonColor);
+        isButtonStyleChanged = false;
     }
 
 
     /**
-     * Adds wheel changing listener
+     * Adds wheel changing listener, it is notified about every change immediately
      *
      * @param listener the listener
      */
     public void addChangingListener(OnWheelChangedListener listener) {
-        changingListeners.add(listener);
+        changingListeners.add(listener, DISPATCH_IMMEDIATE, 0);
+    }
+
+    /**
+     * Adds wheel changing listener with the dispatch mode. In the coalesced modes
+     * the listener gets the first old value and the latest new value of the changes
+     * made since it was notified, and is not notified if the value is not changed in total.
+     * All the pending changes are dispatched when the wheel stops scrolling.
+     *
+     * @param listener     the listener
+     * @param dispatchMode the dispatch mode, DISPATCH_IMMEDIATE, DISPATCH_PER_FRAME,
+     *                     DISPATCH_RATE_LIMITED (at DEF_DISPATCH_RATE) or DISPATCH_SETTLED
+     */
+    public void addChangingListener(OnWheelChangedListener listener, int dispatchMode) {
+        changingListeners.add(listener, dispatchMode, DEF_DISPATCH_RATE);
+    }
+
+    /**
+     * Adds wheel changing listener with the dispatch mode and rate
+     *
+     * @param listener     the listener
+     * @param dispatchMode the dispatch mode
+     * @param maxRate      the maximum count of notifications per second in DISPATCH_RATE_LIMITED mode
+     */
+    public void addChangingListener(OnWheelChangedListener listener, int dispatchMode, int maxRate) {
+        changingListeners.add(listener, dispatchMode, maxRate);
     }
 
     /**
@@ -451,9 +956,7 @@ public class WheelView extends View {
      * @param newValue the new wheel value
      */
     protected void notifyChangingListeners(int oldValue, int newValue) {
-        for (OnWheelChangedListener listener : changingListeners) {
-            listener.onChanged(this, oldValue, newValue);
-        }
+        changingListeners.notifyChanged(oldValue, newValue, isScrollingPerformed, getFrameClock());
     }
 
     /**
@@ -478,7 +981,9 @@ public class WheelView extends View {
      * Notifies listeners about starting scrolling
      */
     protected void notifyScrollingListenersAboutStart() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
+        Object[] listeners = scrollingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelScrollListener listener = (OnWheelScrollListener) listeners[i];
             listener.onScrollingStarted(this);
         }
     }
@@ -487,7 +992,9 @@ public class WheelView extends View {
      * Notifies listeners about ending scrolling
      */
     protected void notifyScrollingListenersAboutEnd() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
+        Object[] listeners = scrollingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelScrollListener listener = (OnWheelScrollListener) listeners[i];
             listener.onScrollingFinished(this);
         }
     }
@@ -514,16 +1021,22 @@ public class WheelView extends View {
      * Notifies listeners about clicking
      */
     protected void notifyClickListenersAboutClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onItemClicked(this, item);
         }
     }
 
     protected void notifyClickListenersAboutSwipeRight(int item) {
-        actionButton.setVisibility(INVISIBLE);
-        for (OnWheelClickedListener listener : clickingListeners) {
+        if (actionButton != null) {
+            actionButton.setVisibility(INVISIBLE);
+        }
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             boolean v = listener.onItemSwipRight(this, item);
-            if (v) {
+            if (v && deleteButton != null) {
                 deleteButton.setVisibility(deleteButtonIsViaiable);
                 isSwipeLeft = true;
                 invalidate();
@@ -537,19 +1050,27 @@ public class WheelView extends View {
             return;
         }
         pastCurrentItem = item;
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onItemSelected(this, item);
         }
     }
 
     protected void notifyClickListenersAboutSwipeLeft(int item) {
         isSwipeRight = true;
-        deleteButton.setVisibility(INVISIBLE);
+        if (deleteButton != null) {
+            deleteButton.setVisibility(INVISIBLE);
+        }
         invalidate();
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             boolean v = listener.onItemSwipLeft(this, item);
             //if (v) {
-            actionButton.setVisibility(actionButtonIsViaiable);
+            if (actionButton != null) {
+                actionButton.setVisibility(actionButtonIsViaiable);
+            }
             invalidate();
             //}
 
@@ -557,23 +1078,31 @@ public class WheelView extends View {
     }
 
     protected void notifyClickListenersAboutActionClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onActionClicked(this, item);
         }
     }
 
     protected void notifyClickListenersAboutDeleteClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onDeleteClicked(this, item);
         }
     }
     protected void notifyClickListenersAboutUnderSelectBarClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onItemUnderClicked(this, item);
         }
     }
     protected void notifyClickListenersAboutAboveSelectBarClick(int item) {
-        for (OnWheelClickedListener listener : clickingListeners) {
+        Object[] listeners = clickingListeners.array();
+        for (int i = 0; i < listeners.length; i++) {
+            OnWheelClickedListener listener = (OnWheelClickedListener) listeners[i];
             listener.onItemAboveClicked(this, item);
         }
     }
@@ -583,7 +1112,7 @@ public class WheelView extends View {
      * @return the current value
      */
     public int getCurrentItem() {
-        return currentItem;
+        return isSpinning ? spinTargetItem : currentItem;
     }
 
     /**
@@ -596,6 +1125,14 @@ public class WheelView extends View {
         if (viewAdapter == null || viewAdapter.getItemsCount() == 0) {
             return; // throw?
         }
+        if (isSpinning) {
+            // the spin is replaced, so the change it has made is notified now
+            isSpinning = false;
+            scroller.stopScrolling();
+            if (currentItem != spinStartItem) {
+                notifyChangingListeners(spinStartItem, currentItem);
+            }
+        }
 
         int itemCount = viewAdapter.getItemsCount();
         if (index < 0 || index >= itemCount) {
@@ -668,67 +1205,207 @@ public class WheelView extends View {
      * @param clearCaches if true then cached views will be clear
      */
     public void invalidateWheel(boolean clearCaches) {
+        prefetcher.clear(recycle);
+        isItemsCacheValid = false;
         if (clearCaches) {
-            recycle.clearAll();
-            if (itemsLayout != null) {
-                itemsLayout.removeAllViews();
+            if (isKeepRecycledViews) {
+                // keep views in the pool, so the new adapter reuses them
+                if (itemsLayout != null) {
+                    recycle.recycleItems(itemsLayout, firstItem, EMPTY_RANGE);
+                }
+            } else {
+                if (!recycle.isPoolShared()) {
+                    // views of other wheels sharing the pool are not touched
+                    recycle.clearAll();
+                }
+                if (itemsLayout != null) {
+                    itemsLayout.removeAllItems();
+                }
             }
             scrollingOffset = 0;
+            isItemsLayoutStale = true;
         } else if (itemsLayout != null) {
             // cache all items
-            recycle.recycleItems(itemsLayout, firstItem, new ItemsRange());
+            recycle.recycleItems(itemsLayout, firstItem, EMPTY_RANGE);
         }
 
         invalidate();
     }
 
     /**
-     * Initializes resources
+     * Sets whether item views are kept for reuse when the adapter is changed.
+     * The new adapter must create the same views for the same view types as the old one.
+     * Otherwise the views of this wheel are dropped when the adapter is changed.
+     *
+     * @param keep the flag to set
      */
-    private void initResourcesIfNecessary() {
-        if (centerDrawable == null) {
-            centerDrawable = getContext().getResources().getDrawable(R.drawable.wheel_val);
-        }
-
-        if (topShadow == null) {
-            topShadow = new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS);
-        }
+    public void setKeepRecycledViewsOnAdapterChange(boolean keep) {
+        isKeepRecycledViews = keep;
+    }
 
-        if (bottomShadow == null) {
-            bottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS);
-        }
+    /**
+     * Tests if item views are kept for reuse when the adapter is changed
+     *
+     * @return true if the views are kept
+     */
+    public boolean isKeepRecycledViewsOnAdapterChange() {
+        return isKeepRecycledViews;
+    }
 
-        setBackgroundResource(R.drawable.wheel_bg);
+    /**
+     * Sets pool of recycled item views. A pool can be shared by several wheels
+     * to reuse the item views between them.
+     * All the adapters using the pool must create the same views for the same view types.
+     *
+     * @param pool the pool, or null to use a private pool of this wheel
+     */
+    public void setRecyclePool(WheelRecyclePool pool) {
+        // return current items to the previous pool
+        invalidateWheel(false);
+        recycle.setPool(pool);
     }
 
     /**
-     * Calculates desired height for layout
+     * Gets pool of recycled item views
      *
-     * @param layout the source layout
-     * @return the desired layout height
+     * @return the pool used by this wheel
      */
-    private int getDesiredHeight(LinearLayout layout) {
-        if (layout != null && layout.getChildAt(0) != null) {
-            itemHeight = layout.getChildAt(0).getMeasuredHeight();
-        }
+    public WheelRecyclePool getRecyclePool() {
+        return recycle.getPool();
+    }
 
-        int desired = itemHeight * visibleItems - itemHeight * ITEM_OFFSET_PERCENT / 50;
+    /**
+     * Sets maximum count of recycled item views kept by this wheel's pool
+     *
+     * @param max the maximum count of views
+     */
+    public void setMaxRecycledViews(int max) {
+        recycle.getPool().setMaxRetainedViews(max);
+    }
 
-        return Math.max(desired, getSuggestedMinimumHeight());
+    /**
+     * Frees recycled item views according to the memory pressure.
+     * Call it from onTrimMemory() of the activity or application.
+     *
+     * @param level the memory trim level, see ComponentCallbacks2
+     */
+    public void trimMemory(int level) {
+        recycle.trimMemory(level);
+        releaseItemsCache();
+        releaseChromeCache();
+        isChromeValid = false;
     }
 
     /**
-     * Returns height of wheel item
+     * Gets count of recycled item views currently kept by this wheel's pool
      *
-     * @return the item height
+     * @return the count of views
+     */
+    public int getRecycledViewCount() {
+        return recycle.getPool().getRetainedViewCount();
+    }
+
+    /**
+     * Gets count of measure passes of the wheel
+     *
+     * @return the count of onMeasure() calls
+     */
+    public int getMeasurePassCount() {
+        return measurePassCount;
+    }
+
+    /**
+     * Gets count of layout passes of the wheel
+     *
+     * @return the count of onLayout() calls
+     */
+    public int getLayoutPassCount() {
+        return layoutPassCount;
+    }
+
+    /**
+     * Gets count of drawn frames of the wheel
+     *
+     * @return the count of onDraw() calls
+     */
+    public int getDrawPassCount() {
+        return drawPassCount;
+    }
+
+    /**
+     * Gets count of measure, layout and draw passes of the last drawn frame.
+     * It is 1 when the frame is only drawn, and 3 for one full traversal.
+     *
+     * @return the count of passes
+     */
+    public int getLastFrameTraversalCount() {
+        return lastFrameTraversalCount;
+    }
+
+    /**
+     * Initializes resources
+     */
+    private void initResources() {
+        centerDrawable = getContext().getResources().getDrawable(R.drawable.wheel_val);
+
+        setBackgroundResource(R.drawable.wheel_bg);
+    }
+
+    /**
+     * Sets whether shadows are drawn on top and bottom of the wheel
+     *
+     * @param enabled the flag to set
+     */
+    public void setShadowsEnabled(boolean enabled) {
+        if (isShadowsEnabled != enabled) {
+            isShadowsEnabled = enabled;
+            isChromeValid = false;
+            invalidate();
+        }
+    }
+
+    /**
+     * Tests if shadows are drawn on top and bottom of the wheel
+     *
+     * @return true if shadows are enabled
+     */
+    public boolean isShadowsEnabled() {
+        return isShadowsEnabled;
+    }
+
+    /**
+     * Calculates desired height for layout
+     *
+     * @param layout the source layout
+     * @return the desired layout height
+     */
+    private int getDesiredHeight(WheelItemsLayout layout) {
+        if (hasFixedItemSize()) {
+            itemHeight = fixedItemHeight;
+        } else if (layout != null && layout.getItemAt(0) != null) {
+            itemHeight = layout.getItemAt(0).getMeasuredHeight();
+        }
+
+        int desired = itemHeight * visibleItems - itemHeight * ITEM_OFFSET_PERCENT / 50;
+
+        return Math.max(desired, getSuggestedMinimumHeight());
+    }
+
+    /**
+     * Returns height of wheel item
+     *
+     * @return the item height
      */
     private int getItemHeight() {
+        if (hasFixedItemSize()) {
+            return fixedItemHeight;
+        }
         if (itemHeight != 0) {
             return itemHeight;
         }
 
-        if (itemsLayout != null && itemsLayout.getChildAt(0) != null) {
-            itemHeight = itemsLayout.getChildAt(0).getHeight();
+        if (itemsLayout != null && itemsLayout.getItemAt(0) != null) {
+            itemHeight = itemsLayout.getItemAt(0).getHeight();
             return itemHeight;
         }
 
@@ -736,6 +1413,12 @@ public class WheelView extends View {
     }
 
     private void calculateButtonLayout(int widthSize, int heightSize) {
+        if (buttonLayout == null) {
+            return;
+        }
+        if (isButtonStyleChanged) {
+            applyButtonStyle();
+        }
         buttonLayout.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED),
                 MeasureSpec.makeMeasureSpec(heightSize, MeasureSpec.UNSPECIFIED));
     }
@@ -748,51 +1431,112 @@ public class WheelView extends View {
      * @return the calculated control width
      */
     private int calculateLayoutWidth(int widthSize, int mode) {
-        initResourcesIfNecessary();
 
-        // TODO: make it static
-        itemsLayout.setLayoutParams(new LayoutParams(LayoutParams.WRAP_CONTENT, LayoutParams.WRAP_CONTENT));
         itemsLayout.measure(MeasureSpec.makeMeasureSpec(widthSize, MeasureSpec.UNSPECIFIED),
                 MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
-        int width = itemsLayout.getMeasuredWidth();
+        int width = resolveItemsWidth(itemsLayout.getMeasuredWidth(), widthSize, mode);
 
-        if (mode == MeasureSpec.EXACTLY) {
-            width = widthSize;
-        } else {
-            width += 2 * PADDING;
+        itemsLayout.measure(MeasureSpec.makeMeasureSpec(width - 2 * PADDING, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        onItemsLayoutMeasured();
+
+        return width;
+    }
 
-            // Check against our minimum width
-            width = Math.max(width, getSuggestedMinimumWidth());
+    /**
+     * Calculates control width for items of the fixed size
+     *
+     * @param widthSize the input layout width
+     * @param mode      the layout mode
+     * @return the calculated control width
+     */
+    private int calculateFixedLayoutWidth(int widthSize, int mode) {
+        itemHeight = fixedItemHeight;
+        return resolveItemsWidth(fixedItemWidth, widthSize, mode);
+    }
 
-            if (mode == MeasureSpec.AT_MOST && widthSize < width) {
-                width = widthSize;
-            }
+    /**
+     * Calculates control width from width of items
+     *
+     * @param itemsWidth the width of items
+     * @param widthSize  the input layout width
+     * @param mode       the layout mode
+     * @return the calculated control width
+     */
+    private int resolveItemsWidth(int itemsWidth, int widthSize, int mode) {
+        if (mode == MeasureSpec.EXACTLY) {
+            return widthSize;
         }
+        int width = itemsWidth + 2 * PADDING;
 
-        itemsLayout.measure(MeasureSpec.makeMeasureSpec(width - 2 * PADDING, MeasureSpec.EXACTLY),
-                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+        // Check against our minimum width
+        width = Math.max(width, getSuggestedMinimumWidth());
 
+        if (mode == MeasureSpec.AT_MOST && widthSize < width) {
+            width = widthSize;
+        }
         return width;
     }
 
+    /**
+     * Calculates control width for items drawn as text
+     *
+     * @param widthSize the input layout width
+     * @param mode      the layout mode
+     * @return the calculated control width
+     */
+    private int calculateTextLayoutWidth(int widthSize, int mode) {
+        updateTextPaint();
+        if (hasFixedItemSize()) {
+            return calculateFixedLayoutWidth(widthSize, mode);
+        }
+        itemHeight = getTextItemHeight();
+        if (mode == MeasureSpec.EXACTLY) {
+            return widthSize;
+        }
+
+        // the widest of items shown around the current one
+        AbstractWheelTextAdapter adapter = (AbstractWheelTextAdapter) viewAdapter;
+        float textWidth = 0;
+        int addItems = visibleItems / 2;
+        for (int i = currentItem - addItems; i <= currentItem + addItems; i++) {
+            int index = getTextItemIndex(i);
+            if (index >= 0) {
+                textWidth = Math.max(textWidth, adapter.measureItemText(index, textPaint));
+            }
+        }
+        return resolveItemsWidth((int) Math.ceil(textWidth), widthSize, mode);
+    }
+
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        measurePassCount++;
+        passesSinceDraw++;
+
         int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int widthSize = MeasureSpec.getSize(widthMeasureSpec);
         int heightSize = MeasureSpec.getSize(heightMeasureSpec);
 
-        buildViewForMeasuring();
-        buildButtonLayoutForMeasuring();
-
-        int width = calculateLayoutWidth(widthSize, widthMode);
+        int width;
+        if (isTextRendering()) {
+            createItemsLayout();
+            width = calculateTextLayoutWidth(widthSize, widthMode);
+        } else if (hasFixedItemSize()) {
+            // items are bound while drawing, they are not needed to measure the wheel
+            createItemsLayout();
+            width = calculateFixedLayoutWidth(widthSize, widthMode);
+        } else {
+            buildViewForMeasuring();
+            width = calculateLayoutWidth(widthSize, widthMode);
+        }
         calculateButtonLayout(widthSize, heightSize);
 
         int height;
         if (heightMode == MeasureSpec.EXACTLY) {
             height = heightSize;
         } else {
-            height = getDesiredHeight(itemsLayout);
+            height = getDesiredHeight(isTextRendering() || hasFixedItemSize() ? null : itemsLayout);
 
             if (heightMode == MeasureSpec.AT_MOST) {
                 height = Math.min(height, heightSize);
@@ -804,9 +1548,22 @@ public class WheelView extends View {
 
     @Override
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
+        layoutPassCount++;
+        passesSinceDraw++;
+
         layout(r - l, b - t);
-        layoutDeleteButton(r - l, b - t);
-        layoutActionButton(r - l, b - t);
+        if (buttonLayout != null) {
+            layoutDeleteButton(r - l, b - t);
+            layoutActionButton(r - l, b - t);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        releaseItemsCache();
+        releaseChromeCache();
+        isChromeValid = false;
     }
 
     /**
@@ -826,11 +1583,6 @@ public class WheelView extends View {
         //result/metrics.scaledDensity = value
         //float value = getItemHeight() / getScaleDensity(getContext());
         //deleteButton.setTextSize(value - 12);
-        deleteButton.setTextSize(deleteButtonFontSize);
-        deleteButton.setText(deleteButtonText);
-        deleteButton.setLines(1);
-        deleteButton.setGravity(Gravity.CENTER);
-        deleteButton.setTextColor(deleteButtonColor);
         //auto adjust width and height by fontsize
         deleteButtonFontWidth = deleteButton.getMeasuredWidth();
         deleteButtonFontHeight = deleteButton.getMeasuredHeight();
@@ -851,11 +1603,6 @@ public class WheelView extends View {
         //result/metrics.scaledDensity = value
         //float value = getItemHeight() / getScaleDensity(getContext());
         //deleteButton.setTextSize(value - 12);
-        actionButton.setTextSize(actionButtonFontSize);
-        actionButton.setText(actionButtonText);
-        actionButton.setLines(1);
-        actionButton.setGravity(Gravity.CENTER);
-        actionButton.setTextColor(actionButtonColor);
         //auto adjust width and height by fontsize
         actionButtonFontWidth = actionButton.getMeasuredWidth();
         actionButtonFontHeight = actionButton.getMeasuredHeight();
@@ -869,30 +1616,44 @@ public class WheelView extends View {
         actionButton.setBottom(center + offset);
         actionButton.setLeft(width - actionButtonFontHeight - padding);
         actionButton.setRight(width - padding);
-        if (!isSwipeLeft) {
-            if (actionButtonIsViaiable == VISIBLE) {
+    }
+
+    /**
+     * Shows the action button again if it is hidden and the item is not swiped.
+     * It is called while drawing, so the change is drawn in the same frame.
+     */
+    private void restoreActionButton() {
+        if (actionButton != null && !isSwipeLeft) {
+            if (actionButtonIsViaiable == VISIBLE && actionButton.getVisibility() != VISIBLE) {
                 actionButton.setVisibility(VISIBLE);
-                invalidate();
             }
         }
-
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        drawPassCount++;
+        lastFrameTraversalCount = passesSinceDraw + 1;
+        passesSinceDraw = 0;
+        restoreActionButton();
 
         if (viewAdapter != null && viewAdapter.getItemsCount() > 0) {
-            updateView();
-
-            drawItems(canvas);
+            if (isTextRendering()) {
+                updateTextPaint();
+                drawTextItems(canvas);
+            } else {
+                updateView();
+                drawItems(canvas);
+            }
             drawButtonLayout(canvas);
-            drawCenterRect(canvas);
-
+            drawChrome(canvas);
 
+            // items passed by a spin are not bound ahead, most of them are never shown
+            if (isScrollingPerformed && !isSpinning && !isTextRendering()) {
+                schedulePrefetch();
+            }
         }
-
-        //drawShadows(canvas);
     }
 
     private void drawButtonLayout(Canvas canvas) {
@@ -905,46 +1666,245 @@ public class WheelView extends View {
     }
 
     /**
-     * Draws shadows on top and bottom of control
+     * Draws items
      *
      * @param canvas the canvas for drawing
      */
-    private void drawShadows(Canvas canvas) {
-        int height = (int) (1.5 * getItemHeight());
-        topShadow.setBounds(0, 0, getWidth(), height);
-        topShadow.draw(canvas);
+    private void drawItems(Canvas canvas) {
+        canvas.save();
 
-        bottomShadow.setBounds(0, getHeight() - height, getWidth(), getHeight());
-        bottomShadow.draw(canvas);
+        int top = (currentItem - firstItem) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
+        //smooth scrolling
+        canvas.translate(PADDING, -top + scrollingOffset);
+        if (!isItemsCacheEnabled || isScrollingFast() || !drawItemsCache(canvas)) {
+            itemsLayout.draw(canvas);
+        }
+
+        canvas.restore();
     }
 
     /**
-     * Draws items
+     * Tests if the running animation scrolls by more than one item yet.
+     * The items strip would be rendered again on most of its frames.
+     *
+     * @return true if the remaining distance is more than the item height
+     */
+    private boolean isScrollingFast() {
+        return Math.abs(scroller.getRemainingDistance()) > getItemHeight();
+    }
+
+    /**
+     * Draws items from the cached strip. Renders items to the strip if they are changed.
+     *
+     * @param canvas the canvas for drawing, translated to the items position
+     * @return true if items are drawn, false if the strip can not be created
+     */
+    private boolean drawItemsCache(Canvas canvas) {
+        int width = itemsLayout.getWidth();
+        int height = itemsLayout.getMeasuredHeight();
+        if (width <= 0 || height <= 0) {
+            return false;
+        }
+        if (itemsCache == null || itemsCache.getWidth() != width || itemsCache.getHeight() < height) {
+            releaseItemsCache();
+            // room for one more item, so the strip is not created again when an item enters
+            int cacheHeight = height + getItemHeight();
+            try {
+                itemsCache = Bitmap.createBitmap(width, cacheHeight, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                isItemsCacheEnabled = false;
+                return false;
+            }
+            itemsCacheCanvas = new Canvas(itemsCache);
+        }
+
+        if (!isItemsCacheValid || hasDirtyItems()) {
+            itemsCache.eraseColor(Color.TRANSPARENT);
+            itemsLayout.draw(itemsCacheCanvas);
+            isItemsCacheValid = true;
+            itemsCacheRenderCount++;
+        } else {
+            itemsCacheReuseCount++;
+        }
+        canvas.drawBitmap(itemsCache, 0, 0, null);
+        return true;
+    }
+
+    /**
+     * Tests if some of item views are invalidated since they were rendered.
+     * It can be detected on API 21 and higher only.
+     *
+     * @return true if an item view is invalidated
+     */
+    private boolean hasDirtyItems() {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return false;
+        }
+        for (int i = 0; i < itemsLayout.getItemCount(); i++) {
+            if (itemsLayout.getItemAt(i).isDirty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Draws items as text
      *
      * @param canvas the canvas for drawing
      */
-    private void drawItems(Canvas canvas) {
+    private void drawTextItems(Canvas canvas) {
+        ItemsRange range = getItemsRange();
+        if (range == null) {
+            return;
+        }
+        int itemHeight = getItemHeight();
+
         canvas.save();
 
-        int top = (currentItem - firstItem) * getItemHeight() + (getItemHeight() - getHeight()) / 2;
+        int top = (currentItem - range.getFirst()) * itemHeight + (itemHeight - getHeight()) / 2;
         //smooth scrolling
         canvas.translate(PADDING, -top + scrollingOffset);
-        itemsLayout.draw(canvas);
+
+        AbstractWheelTextAdapter adapter = (AbstractWheelTextAdapter) viewAdapter;
+        float x = (getWidth() - 2 * PADDING) / 2f;
+        // text is centered in item
+        int baseline = (itemHeight - getTextItemHeight()) / 2 - textMetrics.top;
+        for (int i = range.getFirst(); i <= range.getLast(); i++) {
+            int index = getTextItemIndex(i);
+            if (index >= 0) {
+                // texts built to buffer are drawn without creating strings
+                int length = adapter.getItemTextChars(index, textBuffer);
+                if (length > textBuffer.length) {
+                    textBuffer = new char[length];
+                    length = adapter.getItemTextChars(index, textBuffer);
+                }
+                if (length >= 0) {
+                    canvas.drawText(textBuffer, 0, length, x, baseline, textPaint);
+                } else {
+                    CharSequence text = adapter.getItemTextAt(index);
+                    canvas.drawText(text, 0, text.length(), x, baseline, textPaint);
+                }
+            }
+            baseline += itemHeight;
+        }
 
         canvas.restore();
     }
 
     /**
-     * Draws rect for current value
+     * Returns adapter index of item drawn as text
+     *
+     * @param index the item index, it may be out of bounds for cyclic wheel
+     * @return the adapter index or -1 if index is out of bounds
+     */
+    private int getTextItemIndex(int index) {
+        if (!isValidItemIndex(index)) {
+            return -1;
+        }
+        int count = viewAdapter.getItemsCount();
+        while (index < 0) {
+            index = count + index;
+        }
+        return index % count;
+    }
+
+    /**
+     * Draws rect for current value and shadows. They are rendered to the cached bitmap
+     * when the wheel size or item height is changed, and the bitmap is drawn every frame.
+     *
+     * @param canvas the canvas for drawing
+     */
+    private void drawChrome(Canvas canvas) {
+        int width = getWidth();
+        int height = getHeight();
+        int itemHeight = getItemHeight();
+        if (!isChromeValid || width != chromeWidth || height != chromeHeight || itemHeight != chromeItemHeight) {
+            chromeWidth = width;
+            chromeHeight = height;
+            chromeItemHeight = itemHeight;
+            isChromeValid = true;
+            renderChrome(width, height, itemHeight);
+        }
+        if (chromeCache != null) {
+            canvas.drawBitmap(chromeCache, 0, chromeTop, null);
+        } else {
+            // the bitmap could not be created
+            drawChromeDrawables(canvas);
+        }
+    }
+
+    /**
+     * Renders rect for current value and shadows to the cached bitmap.
+     * The bitmap covers the center rect only if shadows are not drawn.
+     *
+     * @param width      the wheel width
+     * @param height     the wheel height
+     * @param itemHeight the item height
+     */
+    private void renderChrome(int width, int height, int itemHeight) {
+        int center = height / 2;
+        int offset = (int) (itemHeight / 2 * 1.2);
+        // the bounds are also used to detect touches of the center rect
+        centerDrawable.setBounds(0, center - offset, width, center + offset);
+
+        int shadowHeight = (int) (1.5 * itemHeight);
+        if (isShadowsEnabled) {
+            if (topShadow == null) {
+                topShadow = new GradientDrawable(Orientation.TOP_BOTTOM, SHADOWS_COLORS);
+                bottomShadow = new GradientDrawable(Orientation.BOTTOM_TOP, SHADOWS_COLORS);
+            }
+            topShadow.setBounds(0, 0, width, shadowHeight);
+            bottomShadow.setBounds(0, height - shadowHeight, width, height);
+        }
+
+        int top = isShadowsEnabled ? 0 : center - offset;
+        int bottom = isShadowsEnabled ? height : center + offset;
+        if (width <= 0 || bottom <= top) {
+            releaseChromeCache();
+            return;
+        }
+        if (chromeCache == null || chromeCache.getWidth() != width || chromeCache.getHeight() != bottom - top) {
+            releaseChromeCache();
+            try {
+                chromeCache = Bitmap.createBitmap(width, bottom - top, Bitmap.Config.ARGB_8888);
+            } catch (OutOfMemoryError e) {
+                return;
+            }
+            chromeCanvas = new Canvas(chromeCache);
+        } else {
+            chromeCache.eraseColor(Color.TRANSPARENT);
+        }
+        chromeTop = top;
+
+        chromeCanvas.save();
+        chromeCanvas.translate(0, -top);
+        drawChromeDrawables(chromeCanvas);
+        chromeCanvas.restore();
+    }
+
+    /**
+     * Draws rect for current value and shadows with their current bounds
      *
      * @param canvas the canvas for drawing
      */
-    private void drawCenterRect(Canvas canvas) {
-        int center = getHeight() / 2;
-        int offset = (int) (getItemHeight() / 2 * 1.2);
-        centerDrawable.setBounds(0, center - offset, getWidth(), center + offset);
+    private void drawChromeDrawables(Canvas canvas) {
         centerDrawable.draw(canvas);
+        if (isShadowsEnabled) {
+            topShadow.draw(canvas);
+            bottomShadow.draw(canvas);
+        }
+    }
 
+    /**
+     * Frees bitmap of the center rect and shadows
+     */
+    private void releaseChromeCache() {
+        if (chromeCache != null) {
+            chromeCache.recycle();
+            chromeCache = null;
+            chromeCanvas = null;
+        }
     }
 
     @Override
@@ -1044,9 +2004,9 @@ when ACTION_UP is on SelectBar , item == 0
     private boolean isSelectBarClicked(int item,float x, float y) {
         boolean result = false;
         if (isSelectBarArea(downX,downY) && (item == 0)) {
-            if ((deleteButton.getVisibility() == VISIBLE) && (x < deleteButton.getLeft())){
+            if (deleteButton != null && (deleteButton.getVisibility() == VISIBLE) && (x < deleteButton.getLeft())){
                 result = true;
-            } else if ((actionButton.getVisibility() == VISIBLE)  && (x < actionButton.getLeft())){
+            } else if (actionButton != null && (actionButton.getVisibility() == VISIBLE)  && (x < actionButton.getLeft())){
                 result = true;
             } else {
                 result = true;
@@ -1118,7 +2078,13 @@ when ACTION_UP is on SelectBar , item == 0
 
         int offset = scrollingOffset;
         if (pos != currentItem) {
-            setCurrentItem(pos, false);
+            if (isSpinning) {
+                // only the shown item is changed until the spin lands
+                currentItem = pos;
+                invalidate();
+            } else {
+                setCurrentItem(pos, false);
+            }
         } else {
             invalidate();
         }
@@ -1141,23 +2107,69 @@ when ACTION_UP is on SelectBar , item == 0
         scroller.scroll(distance, time);
     }
 
+    /**
+     * Spins the wheel to the item. The landing position is calculated before spinning,
+     * and the wheel scrolls by whole revolutions and the distance to the item.
+     * Only the visible items are bound while spinning, and changing listeners are notified
+     * once when the spin lands; getCurrentItem() returns the target item meanwhile.
+     *
+     * @param index            the target item index
+     * @param extraRevolutions the count of full revolutions for cyclic wheel, positive
+     *                         to spin forward to higher indexes, negative to spin backward;
+     *                         the wheel never spins more than one revolution besides them
+     * @param time             the spinning duration in milliseconds
+     */
+    public void spinTo(int index, int extraRevolutions, int time) {
+        if (viewAdapter == null || viewAdapter.getItemsCount() == 0 || getItemHeight() == 0) {
+            return;
+        }
+        int itemCount = viewAdapter.getItemsCount();
+        if (isCyclic) {
+            index = (index % itemCount + itemCount) % itemCount;
+        } else if (index < 0 || index >= itemCount) {
+            return;
+        }
+
+        int itemsToScroll;
+        if (!isCyclic) {
+            itemsToScroll = index - currentItem;
+        } else {
+            // the distance to the item within one revolution, whole revolutions are added to it
+            int distance = ((index - currentItem) % itemCount + itemCount) % itemCount;
+            if (extraRevolutions < 0 && distance != 0) {
+                distance -= itemCount;
+            }
+            itemsToScroll = distance + extraRevolutions * itemCount;
+        }
+        if (itemsToScroll == 0 && scrollingOffset == 0) {
+            return;
+        }
+
+        if (!isSpinning) {
+            isSpinning = true;
+            spinStartItem = currentItem;
+        }
+        spinTargetItem = index;
+        scroll(itemsToScroll, time);
+    }
+
     /**
      * Calculates range for wheel items
      *
-     * @return the items range
+     * @return the items range, the same object is returned and updated by every call
      */
     private ItemsRange getItemsRange() {
         if (getItemHeight() == 0) {
             return null;
         }
 
-        int first = currentItem;
-        int count = 1;
+        int itemHeight = getItemHeight();
+        int height = getHeight();
 
-        while (count * getItemHeight() < getHeight()) {
-            first--;
-            count += 2; // top + bottom items
-        }
+        // the least count of items added above and below the current one to cover the height
+        int addItems = height > itemHeight ? (height - itemHeight + 2 * itemHeight - 1) / (2 * itemHeight) : 0;
+        int first = currentItem - addItems;
+        int count = 1 + 2 * addItems; // top + bottom items
 
         if (scrollingOffset != 0) {
             if (scrollingOffset > 0) {
@@ -1166,73 +2178,128 @@ when ACTION_UP is on SelectBar , item == 0
             count++;
 
             // process empty items above the first or below the second
-            int emptyItems = scrollingOffset / getItemHeight();
+            int emptyItems = scrollingOffset / itemHeight;
             first -= emptyItems;
-            count += Math.asin(emptyItems);
+            count += Math.abs(emptyItems);
         }
-        return new ItemsRange(first, count);
+        itemsRange.set(first, count);
+        return itemsRange;
     }
 
     /**
      * Rebuilds wheel items if necessary. Caches all unused items.
+     * The items in layout are the window from firstItem to firstItem + count - 1. When the
+     * window slides, only the items which crossed its edges are detached and attached.
      *
      * @return true if items are rebuilt
      */
     private boolean rebuildItems() {
-        boolean updated = false;
         ItemsRange range = getItemsRange();
-        if (itemsLayout != null) {
-            int first = recycle.recycleItems(itemsLayout, firstItem, range);
-            updated = firstItem != first;
-            firstItem = first;
+        if (range == null) {
+            return false;
+        }
+        boolean created = itemsLayout == null;
+        createItemsLayout();
+
+        int oldFirst = firstItem;
+        int oldCount = itemsLayout.getItemCount();
+        if (oldCount == 0 || range.getLast() < firstItem || range.getFirst() > firstItem + oldCount - 1) {
+            // the window jumped, no items can be kept
+            recycle.recycleItems(itemsLayout, firstItem, EMPTY_RANGE);
+            firstItem = range.getFirst();
         } else {
-            createItemsLayout();
-            updated = true;
+            // detach the items which left the window at either edge
+            firstItem = recycle.recycleItems(itemsLayout, firstItem, range);
         }
 
-        if (!updated) {
-            updated = firstItem != range.getFirst() || itemsLayout.getChildCount() != range.getCount();
+        // attach the items which entered the window at the top
+        for (int i = firstItem - 1; i >= range.getFirst(); i--) {
+            if (!addViewItem(i, true)) {
+                break;
+            }
+            firstItem = i;
         }
 
-        if (firstItem > range.getFirst() && firstItem <= range.getLast()) {
-            for (int i = firstItem - 1; i >= range.getFirst(); i--) {
-                if (!addViewItem(i, true)) {
+        // and at the bottom
+        for (int i = firstItem + itemsLayout.getItemCount(); i <= range.getLast(); i++) {
+            if (!addViewItem(i, false)) {
+                if (itemsLayout.getItemCount() > 0) {
                     break;
                 }
-                firstItem = i;
-            }
-        } else {
-            firstItem = range.getFirst();
-        }
-
-        int first = firstItem;
-        for (int i = itemsLayout.getChildCount(); i < range.getCount(); i++) {
-            if (!addViewItem(firstItem + i, false) && itemsLayout.getChildCount() == 0) {
-                first++;
+                // no empty item above the first one
+                firstItem = i + 1;
             }
         }
-        firstItem = first;
 
-        return updated;
+        return created || firstItem != oldFirst || itemsLayout.getItemCount() != oldCount;
     }
 
     /**
      * Updates view. Rebuilds items and label if necessary, recalculate items sizes.
+     * When only the visible window slid, only the items attached or rebound since
+     * the last measuring are measured.
      */
     private void updateView() {
         if (rebuildItems()) {
-            calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
-            layout(getWidth(), getHeight());
+            isItemsCacheValid = false;
+            if (isItemsLayoutStale || itemsLayout.getWidth() != getWidth() - 2 * PADDING
+                    || itemsStyleVersion != getItemsStyleVersion()) {
+                itemsLayout.measure(MeasureSpec.makeMeasureSpec(getWidth() - 2 * PADDING, MeasureSpec.EXACTLY),
+                        MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED));
+                layout(getWidth(), getHeight());
+                onItemsLayoutMeasured();
+                fullMeasureCount++;
+            } else {
+                itemsLayout.measureChangedItems();
+                incrementalMeasureCount++;
+            }
         }
     }
 
+    /**
+     * Remembers that items are measured with the current adapter and style
+     */
+    private void onItemsLayoutMeasured() {
+        isItemsLayoutStale = false;
+        itemsStyleVersion = getItemsStyleVersion();
+    }
+
+    /**
+     * Gets version of the text size of adapter, item views are measured again when it is changed
+     *
+     * @return the size version or 0 if adapter is not a text adapter
+     */
+    private int getItemsStyleVersion() {
+        return viewAdapter instanceof AbstractWheelTextAdapter
+                ? ((AbstractWheelTextAdapter) viewAdapter).getTextSizeVersion() : 0;
+    }
+
+    /**
+     * Gets count of full measurings of item views done while drawing,
+     * after adapter, text style or size of the wheel is changed
+     *
+     * @return the count of full measurings
+     */
+    public int getFullMeasureCount() {
+        return fullMeasureCount;
+    }
+
+    /**
+     * Gets count of incremental measurings of item views done while drawing, when
+     * the visible window slid and only the attached or rebound items are measured
+     *
+     * @return the count of incremental measurings
+     */
+    public int getIncrementalMeasureCount() {
+        return incrementalMeasureCount;
+    }
+
     /**
      * Creates item layouts if necessary
      */
     private void createItemsLayout() {
         if (itemsLayout == null) {
-            itemsLayout = new LinearLayout(getContext());
-            itemsLayout.setOrientation(LinearLayout.VERTICAL);
+            itemsLayout = new WheelItemsLayout(getContext());
         }
     }
 
@@ -1242,7 +2309,7 @@ when ACTION_UP is on SelectBar , item == 0
     private void buildViewForMeasuring() {
         // clear all items
         if (itemsLayout != null) {
-            recycle.recycleItems(itemsLayout, firstItem, new ItemsRange());
+            recycle.recycleItems(itemsLayout, firstItem, EMPTY_RANGE);
         } else {
             createItemsLayout();
         }
@@ -1256,11 +2323,74 @@ when ACTION_UP is on SelectBar , item == 0
         }
     }
 
-    private void buildButtonLayoutForMeasuring() {
-        buttonLayout.removeAllViews();
-        buttonLayout.addView(deleteButton);
-        buttonLayout.addView(actionButton);
-        invalidate();
+    // Prefetching runnable, posted to run between frames
+    private Runnable prefetchRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isPrefetchPosted = false;
+            prefetchItems();
+        }
+    };
+
+    /**
+     * Posts prefetching of the items to be scrolled in
+     */
+    private void schedulePrefetch() {
+        if (!isPrefetchPosted && prefetcher.getCapacity() > 0) {
+            isPrefetchPosted = true;
+            post(prefetchRunnable);
+        }
+    }
+
+    /**
+     * Binds views for the items next to the visible ones in the scrolling direction
+     */
+    private void prefetchItems() {
+        if (!isScrollingPerformed || itemsLayout == null || viewAdapter == null
+                || viewAdapter.getItemsCount() == 0) {
+            return;
+        }
+        int itemHeight = getItemHeight();
+        int direction = scroller.getScrollDirection();
+        if (direction == 0 || itemHeight == 0) {
+            return;
+        }
+
+        // do not bind items beyond the end of animation
+        int ahead = prefetcher.getCapacity();
+        int remaining = scroller.getRemainingDistance();
+        if (remaining != 0) {
+            ahead = Math.min(ahead, Math.abs(remaining) / itemHeight + 1);
+        }
+
+        // positive distance brings previous items in
+        if (direction > 0) {
+            int first = firstItem - 1;
+            prefetcher.retain(first - ahead + 1, first, recycle);
+            for (int i = first; i > first - ahead && !prefetcher.isFull(); i--) {
+                prefetchItem(i);
+            }
+        } else {
+            int last = firstItem + itemsLayout.getItemCount();
+            prefetcher.retain(last, last + ahead - 1, recycle);
+            for (int i = last; i < last + ahead && !prefetcher.isFull(); i++) {
+                prefetchItem(i);
+            }
+        }
+    }
+
+    /**
+     * Binds view for the item and puts it to the ready queue
+     *
+     * @param index the item index
+     */
+    private void prefetchItem(int index) {
+        if (!prefetcher.contains(index)) {
+            View view = getItemView(index);
+            if (view != null) {
+                prefetcher.put(index, view);
+            }
+        }
     }
 
     /**
@@ -1271,12 +2401,15 @@ when ACTION_UP is on SelectBar , item == 0
      * @return true if corresponding item exists and is added
      */
     private boolean addViewItem(int index, boolean first) {
-        View view = getItemView(index);
+        View view = prefetcher.take(index, isScrollingPerformed && prefetcher.getCapacity() > 0);
+        if (view == null) {
+            view = getItemView(index);
+        }
         if (view != null) {
             if (first) {
-                itemsLayout.addView(view, 0);
+                itemsLayout.addFirst(view);
             } else {
-                itemsLayout.addView(view);
+                itemsLayout.addLast(view);
             }
 
             return true;
@@ -1308,7 +2441,11 @@ when ACTION_UP is on SelectBar , item == 0
         }
         int count = viewAdapter.getItemsCount();
         if (!isValidItemIndex(index)) {
-            return viewAdapter.getEmptyItem(recycle.getEmptyItem(), itemsLayout);
+            View view = viewAdapter.getEmptyItem(recycle.getEmptyItem(), itemsLayout);
+            if (view != null) {
+                WheelRecycle.setViewType(view, WheelRecyclePool.EMPTY_ITEM_TYPE);
+            }
+            return view;
         } else {
             while (index < 0) {
                 index = count + index;
@@ -1316,7 +2453,12 @@ when ACTION_UP is on SelectBar , item == 0
         }
 
         index %= count;
-        return viewAdapter.getItem(index, recycle.getItem(), itemsLayout);
+        int viewType = viewAdapter.getItemViewType(index);
+        View view = viewAdapter.getItem(index, recycle.getItem(viewType), itemsLayout);
+        if (view != null) {
+            WheelRecycle.setViewType(view, viewType);
+        }
+        return view;
     }
 
     /**
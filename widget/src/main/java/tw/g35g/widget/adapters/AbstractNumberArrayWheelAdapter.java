@@ -0,0 +1,92 @@
+/*
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package tw.g35g.widget.adapters;
+
+import android.content.Context;
+
+/**
+ * Base of the wheel adapters for arrays of integer values. The values are kept unboxed
+ * by subclasses, and their texts are written to a char buffer without allocation when
+ * the format is supported by SimpleNumberFormat, so wheels drawing items as text
+ * do not create strings.
+ * <p>Binding item views still allocates: getItemText() builds a new string for the view.
+ */
+public abstract class AbstractNumberArrayWheelAdapter extends AbstractWheelTextAdapter {
+
+    // format
+    private String format;
+
+    // Fast formatter for the format, null if the format is not supported by it
+    private SimpleNumberFormat simpleFormat;
+
+    /**
+     * Constructor
+     * @param context the current context
+     * @param format the format string, null to show values as they are
+     */
+    protected AbstractNumberArrayWheelAdapter(Context context, String format) {
+        super(context);
+
+        this.format = format;
+        simpleFormat = SimpleNumberFormat.compile(format);
+    }
+
+    /**
+     * Gets format of the item texts
+     * @return the format string or null
+     */
+    protected String getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets item value widened to long
+     * @param index the item index
+     * @return the value
+     */
+    protected abstract long getItemLongValue(int index);
+
+    /**
+     * Formats item value by String.format(), or converts it to string if there is no format.
+     * It is used when the format is not supported by the buffer formatting.
+     * @param index the item index
+     * @return the item text
+     */
+    protected abstract String formatItemValue(int index);
+
+    @Override
+    public CharSequence getItemText(int index) {
+        if (index >= 0 && index < getItemsCount()) {
+            String text = buildItemText(index);
+            if (text != null) {
+                return text;
+            }
+            return formatItemValue(index);
+        }
+        return null;
+    }
+
+    @Override
+    public int getItemTextChars(int index, char[] buffer) {
+        if (simpleFormat == null || index < 0 || index >= getItemsCount()) {
+            return -1;
+        }
+        if (buffer.length < simpleFormat.getMaxLength()) {
+            return simpleFormat.getMaxLength();
+        }
+        return simpleFormat.format(getItemLongValue(index), buffer);
+    }
+}
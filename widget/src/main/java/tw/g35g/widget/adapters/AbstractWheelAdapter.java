@@ -35,6 +35,16 @@ public abstract class AbstractWheelAdapter implements WheelViewAdapter {
         return null;
     }
 
+    @Override
+    public int getItemViewType(int index) {
+        return 0;
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return 1;
+    }
+
     @Override
     public void registerDataSetObserver(DataSetObserver observer) {
         if (datasetObservers == null) {
@@ -15,9 +15,20 @@
  */
 package tw.g35g.widget.adapters;
 
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
 import android.content.Context;
 import android.graphics.Typeface;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.TextPaint;
 import android.util.Log;
+import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -43,10 +54,42 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
     
     /** Default text size */
     public static final int DEFAULT_TEXT_SIZE = 24;
+
+    /**
+     * Listener receiving views inflated in background
+     */
+    public interface OnViewsInflatedListener {
+        /**
+         * Callback method to be invoked on the main thread when views are inflated.
+         * It is invoked even if inflating fails, the views which were not inflated are null.
+         * @param adapter the adapter which inflated the views
+         * @param items the item views
+         * @param emptyItems the empty item views
+         */
+        void onViewsInflated(AbstractWheelTextAdapter adapter, View[] items, View[] emptyItems);
+    }
+
+    /**
+     * Listener receiving changes of the text style
+     */
+    public interface OnTextStyleChangedListener {
+        /**
+         * Callback method to be invoked when the text color or size is set
+         * @param adapter the adapter which style is changed
+         * @param isSizeChanged true if the text size is changed, false if only the color is
+         */
+        void onTextStyleChanged(AbstractWheelTextAdapter adapter, boolean isSizeChanged);
+    }
+
+    // Background thread for inflating views, shared by all adapters
+    private static ExecutorService inflateExecutor;
     
     // Text settings
     private int textColor = DEFAULT_TEXT_COLOR;
     private int textSize = DEFAULT_TEXT_SIZE;
+    private int textStyleVersion;
+    private int textSizeVersion;
+    private ArrayList<OnTextStyleChangedListener> textStyleListeners;
     
     // Current context
     protected Context context;
@@ -59,6 +102,16 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
     
     // Empty items resources
     protected int emptyItemResourceId;
+
+    // Async inflation
+    private boolean asyncInflation = false;
+    private LayoutInflater backgroundInflater;
+
+    // Cache of item texts, disabled by default
+    private ItemTextCache textCache;
+
+    // Buffer for texts built by getItemTextChars()
+    private char[] itemTextBuffer;
 	
     /**
      * Constructor
@@ -100,11 +153,14 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
     }
     
     /**
-     * Sets text color
+     * Sets text color. Wheels using the adapter are notified to redraw items,
+     * the cached texts and widths are kept.
      * @param textColor the text color to set
      */
     public void setTextColor(int textColor) {
         this.textColor = textColor;
+        textStyleVersion++;
+        notifyTextStyleChanged(false);
     }
     
     /**
@@ -116,11 +172,65 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
     }
     
     /**
-     * Sets text size
+     * Sets text size. Wheels using the adapter are notified to measure items again,
+     * the cached widths are dropped and the cached texts are kept.
      * @param textSize the text size to set
      */
     public void setTextSize(int textSize) {
         this.textSize = textSize;
+        textStyleVersion++;
+        textSizeVersion++;
+        notifyTextStyleChanged(true);
+    }
+
+    /**
+     * Gets version of text settings. It is changed every time the text color or size is set.
+     * @return the text style version
+     */
+    public int getTextStyleVersion() {
+        return textStyleVersion;
+    }
+
+    /**
+     * Gets version of text settings which change the text measurements.
+     * It is changed every time the text size is set.
+     * @return the text size version
+     */
+    public int getTextSizeVersion() {
+        return textSizeVersion;
+    }
+
+    /**
+     * Adds listener of the text style changes
+     * @param listener the listener
+     */
+    public void addTextStyleListener(OnTextStyleChangedListener listener) {
+        if (textStyleListeners == null) {
+            textStyleListeners = new ArrayList<OnTextStyleChangedListener>();
+        }
+        textStyleListeners.add(listener);
+    }
+
+    /**
+     * Removes listener of the text style changes
+     * @param listener the listener
+     */
+    public void removeTextStyleListener(OnTextStyleChangedListener listener) {
+        if (textStyleListeners != null) {
+            textStyleListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Notifies listeners about the text style change
+     * @param isSizeChanged true if the text size is changed
+     */
+    private void notifyTextStyleChanged(boolean isSizeChanged) {
+        if (textStyleListeners != null) {
+            for (int i = 0; i < textStyleListeners.size(); i++) {
+                textStyleListeners.get(i).onTextStyleChanged(this, isSizeChanged);
+            }
+        }
     }
     
     /**
@@ -172,6 +282,212 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
     }
     
     
+    /**
+     * Sets size of the item texts cache. Texts of recently shown items are kept, so rebinding
+     * a view to one of them does not build the text again. The widths measured by the wheel
+     * drawing items as text are kept too, so they are not measured again.
+     * <p>Item views do not take measured layouts: a recycled text view bound to another item
+     * still sets the text and measures it. Only a view bound again to the item it shows
+     * is not updated. The cache is cleared when data is changed.
+     * @param maxSize the maximum count of cached items, 0 disables the cache
+     */
+    public void setTextCacheSize(int maxSize) {
+        textCache = maxSize > 0 ? new ItemTextCache(maxSize) : null;
+    }
+
+    /**
+     * Gets cache of the item texts
+     * @return the cache or null if it is disabled
+     */
+    public ItemTextCache getTextCache() {
+        return textCache;
+    }
+
+    /**
+     * Tests if items can be drawn by wheel as text, without creating views.
+     * It is possible when items and empty items use the default text view.
+     * @return true if items can be drawn as text
+     */
+    public boolean canDrawItemsAsText() {
+        return itemResourceId == TEXT_VIEW_ITEM_RESOURCE
+                && (emptyItemResourceId == NO_RESOURCE || emptyItemResourceId == TEXT_VIEW_ITEM_RESOURCE);
+    }
+
+    /**
+     * Returns text of item drawn by wheel without views
+     * @param index the item index
+     * @return the text of specified item, or empty text if there is none
+     */
+    public CharSequence getItemTextAt(int index) {
+        if (textCache != null) {
+            CharSequence text = textCache.getText(index);
+            if (text == null) {
+                text = getItemText(index);
+                if (text == null) {
+                    text = "";
+                }
+                textCache.putText(index, text);
+            }
+            return text;
+        }
+        CharSequence text = getItemText(index);
+        return text != null ? text : "";
+    }
+
+    /**
+     * Writes text of item to the buffer. Adapters which can build item texts without
+     * allocating override it, so wheel draws their items as text without creating strings.
+     * The text must be the same as getItemText() returns.
+     * @param index the item index
+     * @param buffer the buffer to write text to
+     * @return the text length, it may be greater than the buffer length if the text does not fit,
+     * then nothing is written; or -1 if the adapter does not support it
+     */
+    public int getItemTextChars(int index, char[] buffer) {
+        return -1;
+    }
+
+    /**
+     * Builds text of item by getItemTextChars()
+     * @param index the item index
+     * @return the item text or null if the adapter does not build item texts to buffer
+     */
+    protected String buildItemText(int index) {
+        if (itemTextBuffer == null) {
+            itemTextBuffer = new char[32];
+        }
+        int length = getItemTextChars(index, itemTextBuffer);
+        if (length > itemTextBuffer.length) {
+            itemTextBuffer = new char[length];
+            length = getItemTextChars(index, itemTextBuffer);
+        }
+        return length >= 0 ? new String(itemTextBuffer, 0, length) : null;
+    }
+
+    /**
+     * Measures text of item drawn by wheel without views.
+     * The width is kept in the text cache if it is enabled.
+     * @param index the item index
+     * @param paint the paint configured by configureTextPaint()
+     * @return the text width
+     */
+    public float measureItemText(int index, TextPaint paint) {
+        CharSequence text = getItemTextAt(index);
+        if (textCache == null) {
+            return paint.measureText(text, 0, text.length());
+        }
+        float width = textCache.getWidth(index, textSizeVersion);
+        if (Float.isNaN(width)) {
+            width = paint.measureText(text, 0, text.length());
+            textCache.putWidth(index, textSizeVersion, width);
+        }
+        return width;
+    }
+
+    /**
+     * Configures paint to draw items as text without views. 
+     * The paint gets the same style as configureTextView() gives to the text views.
+     * @param paint the paint to be configured
+     */
+    public void configureTextPaint(TextPaint paint) {
+        paint.setAntiAlias(true);
+        paint.setColor(textColor);
+        paint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, textSize,
+                context.getResources().getDisplayMetrics()));
+        paint.setTypeface(Typeface.create(Typeface.SANS_SERIF, Typeface.BOLD));
+        paint.setTextAlign(TextPaint.Align.CENTER);
+    }
+
+    /**
+     * Tests if views are inflated in background when the adapter is set to wheel
+     * @return true if async inflation is enabled
+     */
+    public boolean isAsyncInflationEnabled() {
+        return asyncInflation;
+    }
+
+    /**
+     * Sets whether views are inflated in background when the adapter is set to wheel.
+     * The visible items are inflated when the wheel is measured, the views needed next
+     * for scrolling and the empty items are inflated in background and taken as cached ones.
+     * It is applied only for adapters with a single view type.
+     * @param enabled the flag to set
+     */
+    public void setAsyncInflationEnabled(boolean enabled) {
+        asyncInflation = enabled;
+    }
+
+    /**
+     * Inflates item views and empty item views on a background thread.
+     * The listener is called on the main thread when the views are inflated, or when
+     * inflating fails. Inflating which is not started yet can be cancelled by the returned future.
+     * @param parent the parent that views will eventually be attached to
+     * @param itemsCount the count of item views
+     * @param emptyItemsCount the count of empty item views
+     * @param listener the listener to receive views
+     * @return the future of inflating
+     */
+    public Future<?> inflateViewsAsync(final ViewGroup parent, final int itemsCount, int emptyItemsCount,
+            final OnViewsInflatedListener listener) {
+        final int itemResource = itemResourceId;
+        final int emptyItemResource = emptyItemResourceId;
+        final int emptyCount = emptyItemResource != NO_RESOURCE ? emptyItemsCount : 0;
+        if (backgroundInflater == null) {
+            // inflater is not thread safe, so background thread uses its own
+            backgroundInflater = inflater.cloneInContext(context);
+        }
+        final Handler handler = new Handler(Looper.getMainLooper());
+        return getInflateExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+                final View[] items = new View[itemsCount];
+                final View[] emptyItems = new View[emptyCount];
+                try {
+                    for (int i = 0; i < items.length; i++) {
+                        items[i] = getView(itemResource, parent, backgroundInflater);
+                    }
+                    for (int i = 0; i < emptyItems.length; i++) {
+                        emptyItems[i] = getView(emptyItemResource, parent, backgroundInflater);
+                    }
+                } catch (RuntimeException e) {
+                    Log.e("AbstractWheelAdapter", "Unable to inflate views in background", e);
+                } finally {
+                    // the views inflated so far are delivered, the others are inflated on the main thread
+                    handler.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            listener.onViewsInflated(AbstractWheelTextAdapter.this, items, emptyItems);
+                        }
+                    });
+                }
+            }
+        });
+    }
+
+    /**
+     * Gets background thread for inflating views. Creates it if necessary.
+     * @return the executor of background thread
+     */
+    private static synchronized ExecutorService getInflateExecutor() {
+        if (inflateExecutor == null) {
+            inflateExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                            runnable.run();
+                        }
+                    }, "WheelInflater");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return inflateExecutor;
+    }
+
     /**
      * Returns text for specified item
      * @param index the item index
@@ -179,6 +495,22 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
      */
     protected abstract CharSequence getItemText(int index);
 
+    @Override
+    protected void notifyDataChangedEvent() {
+        if (textCache != null) {
+            textCache.clear();
+        }
+        super.notifyDataChangedEvent();
+    }
+
+    @Override
+    protected void notifyDataInvalidatedEvent() {
+        if (textCache != null) {
+            textCache.clear();
+        }
+        super.notifyDataInvalidatedEvent();
+    }
+
     @Override
     public View getItem(int index, View convertView, ViewGroup parent) {
         if (index >= 0 && index < getItemsCount()) {
@@ -187,11 +519,12 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
             }
             TextView textView = getTextView(convertView, itemTextResourceId);
             if (textView != null) {
-                CharSequence text = getItemText(index);
-                if (text == null) {
-                    text = "";
+                CharSequence text = getItemTextAt(index);
+                // cached text is the same instance the view got when it showed this item,
+                // a view bound to another item measures the new text
+                if (textCache == null || textView.getText() != text) {
+                    textView.setText(text);
                 }
-                textView.setText(text);
     
                 if (itemResourceId == TEXT_VIEW_ITEM_RESOURCE) {
                     configureTextView(textView);
@@ -222,7 +555,10 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
         view.setTextColor(textColor);
         view.setGravity(Gravity.CENTER);
         view.setTextSize(textSize);
-        view.setLines(1);
+        if (view.getMinLines() != 1 || view.getMaxLines() != 1) {
+            // setLines() requests layout even if lines are not changed
+            view.setLines(1);
+        }
         view.setTypeface(Typeface.SANS_SERIF, Typeface.BOLD);
     }
     
@@ -255,6 +591,16 @@ public abstract class AbstractWheelTextAdapter extends AbstractWheelAdapter {
      * @return the loaded view or null if resource is not set
      */
     private View getView(int resource, ViewGroup parent) {
+        return getView(resource, parent, inflater);
+    }
+
+    /**
+     * Loads view from resources by the specified inflater
+     * @param resource the resource Id
+     * @param inflater the layout inflater
+     * @return the loaded view or null if resource is not set
+     */
+    private View getView(int resource, ViewGroup parent, LayoutInflater inflater) {
         switch (resource) {
         case NO_RESOURCE:
             return null;
@@ -0,0 +1,142 @@
+/*
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package tw.g35g.widget.adapters;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import android.content.Context;
+
+/**
+ * The wheel adapter for an array of double values shown with a fixed count of decimals.
+ * Values are kept unboxed and their texts are built in a reusable buffer.
+ * <p>Values are rounded half up like String.format("%.2f") does. String.format() rounds
+ * the shortest decimal representation of the value, while the scaled binary value may be on
+ * the other side of the half, e.g. 1.005 * 100 is 100.49999999999999. Such values, which are
+ * close to the half of the last decimal, are formatted by String.format().
+ */
+public class DoubleArrayWheelAdapter extends AbstractWheelTextAdapter {
+
+    /** The maximum count of decimals */
+    public static final int MAX_DECIMALS = 9;
+
+    // Scaled values greater than this are formatted by String.format()
+    private static final double MAX_SCALED_VALUE = 1e15;
+
+    // Scaled values closer to the half than this count of ulps are formatted by String.format()
+    private static final int TIE_ULPS = 4;
+
+    // items
+    private double items[];
+
+    // Count of decimals
+    private int decimals;
+    private long scale = 1;
+
+    // Formatters of integer and fractional parts, null if they are not supported in the current locale
+    private SimpleNumberFormat integerFormat;
+    private SimpleNumberFormat fractionFormat;
+    private char decimalSeparator;
+
+    /**
+     * Constructor
+     * @param context the current context
+     * @param items the items
+     * @param decimals the count of decimals from 0 to MAX_DECIMALS
+     */
+    public DoubleArrayWheelAdapter(Context context, double items[], int decimals) {
+        super(context);
+
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Count of decimals must be from 0 to " + MAX_DECIMALS);
+        }
+        this.items = items;
+        this.decimals = decimals;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+
+        // both formatters are null or not null, depending on the locale digits
+        integerFormat = SimpleNumberFormat.compile(null);
+        if (decimals > 0) {
+            fractionFormat = SimpleNumberFormat.compile("%0" + decimals + "d");
+        }
+        decimalSeparator = DecimalFormatSymbols.getInstance(Locale.getDefault()).getDecimalSeparator();
+    }
+
+    /**
+     * Gets item value
+     * @param index the item index
+     * @return the value
+     */
+    public double getItemValue(int index) {
+        return items[index];
+    }
+
+    @Override
+    public CharSequence getItemText(int index) {
+        if (index >= 0 && index < items.length) {
+            String text = buildItemText(index);
+            if (text != null) {
+                return text;
+            }
+            return String.format("%." + decimals + "f", items[index]);
+        }
+        return null;
+    }
+
+    @Override
+    public int getItemTextChars(int index, char[] buffer) {
+        if (integerFormat == null || index < 0 || index >= items.length) {
+            return -1;
+        }
+        double value = items[index];
+        boolean negative = Double.compare(value, 0.0) < 0;
+        double scaled = Math.abs(value) * scale;
+        if (!(scaled < MAX_SCALED_VALUE)) {
+            // too big or NaN
+            return -1;
+        }
+
+        int maxLength = 1 + integerFormat.getMaxLength() + 1 + decimals;
+        if (buffer.length < maxLength) {
+            return maxLength;
+        }
+
+        double fraction = scaled - Math.floor(scaled);
+        if (Math.abs(fraction - 0.5) <= TIE_ULPS * Math.ulp(scaled)) {
+            // the binary product cannot tell which way the decimal value is rounded
+            return -1;
+        }
+
+        long rounded = Math.round(scaled);
+        int length = 0;
+        if (negative) {
+            buffer[length++] = '-';
+        }
+        length += integerFormat.format(rounded / scale, buffer, length);
+        if (decimals > 0) {
+            buffer[length++] = decimalSeparator;
+            length += fractionFormat.format(rounded % scale, buffer, length);
+        }
+        return length;
+    }
+
+    @Override
+    public int getItemsCount() {
+        return items.length;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package tw.g35g.widget.adapters;
+
+import android.content.Context;
+
+/**
+ * The wheel adapter for an array of int values.
+ * Values are kept unboxed and their texts are built in a reusable buffer,
+ * see AbstractNumberArrayWheelAdapter.
+ */
+public class IntArrayWheelAdapter extends AbstractNumberArrayWheelAdapter {
+
+    // items
+    private int items[];
+
+    /**
+     * Constructor
+     * @param context the current context
+     * @param items the items
+     */
+    public IntArrayWheelAdapter(Context context, int items[]) {
+        this(context, items, null);
+    }
+
+    /**
+     * Constructor
+     * @param context the current context
+     * @param items the items
+     * @param format the format string
+     */
+    public IntArrayWheelAdapter(Context context, int items[], String format) {
+        super(context, format);
+
+        this.items = items;
+    }
+
+    /**
+     * Gets item value
+     * @param index the item index
+     * @return the value
+     */
+    public int getItemValue(int index) {
+        return items[index];
+    }
+
+    @Override
+    protected long getItemLongValue(int index) {
+        return items[index];
+    }
+
+    @Override
+    protected String formatItemValue(int index) {
+        String format = getFormat();
+        return format != null ? String.format(format, items[index]) : Integer.toString(items[index]);
+    }
+
+    @Override
+    public int getItemsCount() {
+        return items.length;
+    }
+}
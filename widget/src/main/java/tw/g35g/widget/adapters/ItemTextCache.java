@@ -0,0 +1,210 @@
+/*
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package tw.g35g.widget.adapters;
+
+import java.util.Arrays;
+
+/**
+ * LRU cache of item texts and their measured widths, keyed by item index.
+ * Widths are kept for one text size; they are dropped when the size is changed.
+ * The widths are used by wheels drawing items as text, item views measure their texts themselves.
+ * <p>Lookups scan the cache, so it is meant for the few dozens of items a wheel shows around
+ * the current one, like the minute values of a cyclic wheel.
+ */
+public class ItemTextCache {
+
+    /** Default maximum count of cached items */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    // Cached entries
+    private final int[] indexes;
+    private final CharSequence[] texts;
+    private final float[] widths;
+    private final long[] stamps;
+
+    // Count of cached entries
+    private int size;
+
+    // Text style version the widths are measured with
+    private int styleVersion;
+
+    // Usage order, used to find the least recently used entry
+    private long useStamp;
+
+    // Statistics
+    private int hitCount;
+    private int missCount;
+
+    /**
+     * Constructor
+     * @param maxSize the maximum count of cached items
+     */
+    public ItemTextCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        indexes = new int[maxSize];
+        texts = new CharSequence[maxSize];
+        widths = new float[maxSize];
+        stamps = new long[maxSize];
+    }
+
+    /**
+     * Gets cached text of item
+     * @param index the item index
+     * @return the text or null if it is not cached
+     */
+    public CharSequence getText(int index) {
+        int position = find(index);
+        if (position < 0) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        stamps[position] = useStamp++;
+        return texts[position];
+    }
+
+    /**
+     * Puts text of item to the cache, the least recently used item is evicted if the cache is full
+     * @param index the item index
+     * @param text the item text
+     */
+    public void putText(int index, CharSequence text) {
+        int position = find(index);
+        if (position < 0) {
+            position = size < indexes.length ? size++ : findEldest();
+            indexes[position] = index;
+        }
+        texts[position] = text;
+        widths[position] = Float.NaN;
+        stamps[position] = useStamp++;
+    }
+
+    /**
+     * Gets measured width of cached item text
+     * @param index the item index
+     * @param styleVersion the version of text style the width is measured with
+     * @return the width or NaN if text is not cached or not measured with this style
+     */
+    public float getWidth(int index, int styleVersion) {
+        setStyleVersion(styleVersion);
+        int position = find(index);
+        return position >= 0 ? widths[position] : Float.NaN;
+    }
+
+    /**
+     * Sets measured width of cached item text. Does nothing if text of the item is not cached.
+     * @param index the item index
+     * @param styleVersion the version of text style the width is measured with
+     * @param width the width
+     */
+    public void putWidth(int index, int styleVersion, float width) {
+        setStyleVersion(styleVersion);
+        int position = find(index);
+        if (position >= 0) {
+            widths[position] = width;
+        }
+    }
+
+    /**
+     * Clears the cache
+     */
+    public void clear() {
+        Arrays.fill(texts, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Gets maximum count of cached items
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return indexes.length;
+    }
+
+    /**
+     * Gets count of cached items
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets count of texts found in the cache
+     * @return the count of hits
+     */
+    public int getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Gets count of texts not found in the cache
+     * @return the count of misses
+     */
+    public int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Gets share of texts found in the cache
+     * @return the hit rate from 0 to 1, or 0 if nothing has been requested
+     */
+    public float getHitRate() {
+        int requests = hitCount + missCount;
+        return requests > 0 ? (float) hitCount / requests : 0;
+    }
+
+    /**
+     * Drops measured widths if the text style is changed
+     * @param version the text style version
+     */
+    private void setStyleVersion(int version) {
+        if (styleVersion != version) {
+            styleVersion = version;
+            Arrays.fill(widths, 0, size, Float.NaN);
+        }
+    }
+
+    /**
+     * Finds position of item in the cache
+     * @param index the item index
+     * @return the position or -1 if item is not cached
+     */
+    private int find(int index) {
+        for (int i = 0; i < size; i++) {
+            if (indexes[i] == index) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Finds position of the least recently used item
+     * @return the position
+     */
+    private int findEldest() {
+        int eldest = 0;
+        for (int i = 1; i < size; i++) {
+            if (stamps[i] < stamps[eldest]) {
+                eldest = i;
+            }
+        }
+        return eldest;
+    }
+}
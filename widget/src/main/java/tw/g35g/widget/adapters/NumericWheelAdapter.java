@@ -28,6 +28,9 @@ public class NumericWheelAdapter extends AbstractWheelTextAdapter {
 
     /** The default max value */
     private static final int DEFAULT_MIN_VALUE = 0;
+
+    // Count of pre-formatted texts built at once
+    private static final int TEXT_BLOCK_SIZE = 128;
     
     // Values
     private int minValue;
@@ -35,6 +38,14 @@ public class NumericWheelAdapter extends AbstractWheelTextAdapter {
     
     // format
     private String format;
+
+    // Fast formatter for the format, null if the format is not supported by it
+    private SimpleNumberFormat simpleFormat;
+    private char[] formatBuffer;
+
+    // Pre-formatted texts, built in blocks on demand
+    private boolean preformatted;
+    private String[][] textBlocks;
     
     /**
      * Constructor
@@ -67,17 +78,77 @@ public class NumericWheelAdapter extends AbstractWheelTextAdapter {
         this.minValue = minValue;
         this.maxValue = maxValue;
         this.format = format;
+
+        simpleFormat = SimpleNumberFormat.compile(format);
+        if (simpleFormat != null) {
+            formatBuffer = new char[simpleFormat.getMaxLength()];
+        }
+    }
+
+    /**
+     * Tests if the pre-formatted mode is enabled
+     * @return true if texts are pre-formatted
+     */
+    public boolean isPreformatted() {
+        return preformatted;
+    }
+
+    /**
+     * Sets the pre-formatted mode. In this mode the texts of values are formatted once, in blocks
+     * when they are first needed, so getting item text during scrolling does not allocate.
+     * @param preformatted the flag to set
+     */
+    public void setPreformatted(boolean preformatted) {
+        this.preformatted = preformatted;
+        textBlocks = null;
     }
 
     @Override
     public CharSequence getItemText(int index) {
         if (index >= 0 && index < getItemsCount()) {
-            int value = minValue + index;
-            return format != null ? String.format(format, value) : Integer.toString(value);
+            if (preformatted) {
+                return getPreformattedText(index);
+            }
+            return formatValue(minValue + index);
         }
         return null;
     }
 
+    /**
+     * Returns pre-formatted text of item, formats its block if necessary
+     * @param index the item index
+     * @return the item text
+     */
+    private String getPreformattedText(int index) {
+        if (textBlocks == null) {
+            textBlocks = new String[(getItemsCount() + TEXT_BLOCK_SIZE - 1) / TEXT_BLOCK_SIZE][];
+        }
+        int blockIndex = index / TEXT_BLOCK_SIZE;
+        String[] block = textBlocks[blockIndex];
+        if (block == null) {
+            int first = blockIndex * TEXT_BLOCK_SIZE;
+            block = new String[Math.min(TEXT_BLOCK_SIZE, getItemsCount() - first)];
+            for (int i = 0; i < block.length; i++) {
+                block[i] = formatValue(minValue + first + i);
+            }
+            textBlocks[blockIndex] = block;
+        }
+        return block[index % TEXT_BLOCK_SIZE];
+    }
+
+    /**
+     * Formats value using the format
+     * @param value the value
+     * @return the formatted text
+     */
+    private String formatValue(int value) {
+        if (simpleFormat != null) {
+            int length = simpleFormat.format(value, formatBuffer);
+            return new String(formatBuffer, 0, length);
+        }
+        return format != null ? String.format(format, value) : Integer.toString(value);
+    }
+
     @Override
     public int getItemsCount() {
         return maxValue - minValue + 1;
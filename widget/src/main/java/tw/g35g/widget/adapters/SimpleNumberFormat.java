@@ -0,0 +1,156 @@
+/*
+ *  Copyright 2011 Yuri Kanivets
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package tw.g35g.widget.adapters;
+
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Formats integer values to a char buffer without allocation.
+ * Supports format strings with a single %d conversion, optionally with zero padding
+ * and width (like "%02d" or "%4d h"), which give the same result as String.format().
+ */
+final class SimpleNumberFormat {
+
+    // Length of the longest long value with sign
+    private static final int MAX_DIGITS = 20;
+
+    // Texts around the value
+    private final String prefix;
+    private final String suffix;
+
+    // Minimum width of the value
+    private final int width;
+
+    // Padding of the value
+    private final boolean zeroPadding;
+
+    /**
+     * Constructor
+     * @param prefix the text before the value
+     * @param suffix the text after the value
+     * @param width the minimum width of the value
+     * @param zeroPadding if true then the value is padded with zeros instead of spaces
+     */
+    private SimpleNumberFormat(String prefix, String suffix, int width, boolean zeroPadding) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.width = width;
+        this.zeroPadding = zeroPadding;
+    }
+
+    /**
+     * Creates formatter for the format string
+     * @param format the format string, null means no formatting like Long.toString()
+     * @return the formatter or null if format is not supported,
+     * or the current locale does not use ASCII digits
+     */
+    static SimpleNumberFormat compile(String format) {
+        if (DecimalFormatSymbols.getInstance(Locale.getDefault()).getZeroDigit() != '0') {
+            return null;
+        }
+        if (format == null) {
+            return new SimpleNumberFormat("", "", 0, false);
+        }
+        int start = format.indexOf('%');
+        if (start < 0) {
+            return null;
+        }
+        int position = start + 1;
+        boolean zeroPadding = false;
+        if (position < format.length() && format.charAt(position) == '0') {
+            zeroPadding = true;
+            position++;
+        }
+        int width = 0;
+        while (position < format.length() && Character.isDigit(format.charAt(position))) {
+            width = width * 10 + format.charAt(position) - '0';
+            position++;
+            if (width > MAX_DIGITS) {
+                return null;
+            }
+        }
+        if (position >= format.length() || format.charAt(position) != 'd'
+                || format.indexOf('%', position) >= 0 || (zeroPadding && width == 0)) {
+            return null;
+        }
+        return new SimpleNumberFormat(format.substring(0, start), format.substring(position + 1),
+                width, zeroPadding);
+    }
+
+    /**
+     * Gets the maximum length of formatted value
+     * @return the length of buffer enough for any value
+     */
+    int getMaxLength() {
+        return prefix.length() + Math.max(width, MAX_DIGITS) + suffix.length();
+    }
+
+    /**
+     * Formats value to the buffer
+     * @param value the value
+     * @param buffer the buffer of getMaxLength() chars at least
+     * @return the length of formatted value
+     */
+    int format(long value, char[] buffer) {
+        return format(value, buffer, 0);
+    }
+
+    /**
+     * Formats value to the buffer at the specified position
+     * @param value the value
+     * @param buffer the buffer of getMaxLength() chars at least after the position
+     * @param offset the position in buffer
+     * @return the length of formatted value
+     */
+    int format(long value, char[] buffer, int offset) {
+        int length = offset;
+        prefix.getChars(0, prefix.length(), buffer, length);
+        length += prefix.length();
+
+        // count digits, negative values are used so that Long.MIN_VALUE fits
+        boolean negative = value < 0;
+        long rest = negative ? value : -value;
+        int digits = 1;
+        for (long v = rest / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int valueLength = digits + (negative ? 1 : 0);
+        int padding = Math.max(width - valueLength, 0);
+
+        if (!zeroPadding) {
+            for (int i = 0; i < padding; i++) {
+                buffer[length++] = ' ';
+            }
+        }
+        if (negative) {
+            buffer[length++] = '-';
+        }
+        if (zeroPadding) {
+            for (int i = 0; i < padding; i++) {
+                buffer[length++] = '0';
+            }
+        }
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' - rest % 10);
+            rest /= 10;
+        }
+        length += digits;
+
+        suffix.getChars(0, suffix.length(), buffer, length);
+        return length + suffix.length() - offset;
+    }
+}
@@ -49,6 +49,22 @@ public interface WheelViewAdapter {
 	 * @return the empty item View
 	 */
 	public View getEmptyItem(View convertView, ViewGroup parent);
+
+	/**
+	 * Gets the type of View that will be created by getItem() for the specified item.
+	 * Views are only reused between items of the same type.
+	 * 
+	 * @param index the item index
+	 * @return the view type, in the range from 0 to getViewTypeCount() - 1
+	 */
+	public int getItemViewType(int index);
+
+	/**
+	 * Gets the number of types of Views that will be created by getItem().
+	 * 
+	 * @return the count of view types, at least 1
+	 */
+	public int getViewTypeCount();
 	
 	/**
 	 * Register an observer that is called when changes happen to the data used by this adapter.
@@ -0,0 +1,157 @@
+package tw.g35g.widget;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Steps the scrolling physics by display frames on a plain JVM
+ */
+public class WheelPhysicsTest {
+
+    private static final long FRAME_NANOS = 1000000000L / 60;
+    private static final long START_NANOS = 5000000000L;
+    private static final int MAX_FRAMES = 600;
+
+    private static final float FLING_VELOCITY = 3000;
+    private static final float SNAPPED_POSITION = 850;
+
+    @Test
+    public void decayFlingIsMonotonicToSnappedPosition() {
+        assertMonotonicFling(new DecayPhysics());
+    }
+
+    @Test
+    public void criticallyDampedFlingIsMonotonicToSnappedPosition() {
+        assertMonotonicFling(new CriticallyDampedPhysics());
+    }
+
+    @Test
+    public void springFlingIsDampedToSnappedPosition() {
+        WheelPhysics physics = new SpringPhysics();
+        physics.fling(0, FLING_VELOCITY);
+        physics.setFinalPosition(SNAPPED_POSITION);
+        assertEquals(SNAPPED_POSITION, physics.getFinalPosition(), 0);
+
+        // the greatest distance from the final position between its crossings decreases
+        float lastSwing = Float.MAX_VALUE;
+        float swing = 0;
+        float lastDisplacement = -SNAPPED_POSITION;
+        long time = START_NANOS;
+        int frames = 0;
+        while (physics.update(time)) {
+            float displacement = physics.getPosition() - SNAPPED_POSITION;
+            if (displacement * lastDisplacement < 0) {
+                assertTrue("swing " + swing + " after " + lastSwing, swing < lastSwing);
+                lastSwing = swing;
+                swing = 0;
+            }
+            swing = Math.max(swing, Math.abs(displacement));
+            lastDisplacement = displacement;
+            time += FRAME_NANOS;
+            assertTrue(++frames < MAX_FRAMES);
+        }
+        assertTrue("the spring overshoots", lastSwing < Float.MAX_VALUE);
+        assertFinishedAt(physics, SNAPPED_POSITION);
+    }
+
+    @Test
+    public void scrollsAreMonotonicToFinalPosition() {
+        WheelPhysics[] engines = {new DecayPhysics(), new CriticallyDampedPhysics()};
+        for (WheelPhysics physics : engines) {
+            physics.scroll(0, 40, 400);
+            assertEquals(40, physics.getFinalPosition(), 0);
+            runToEnd(physics, 0);
+            assertFinishedAt(physics, 40);
+        }
+    }
+
+    @Test
+    public void springScrollEndsAtFinalPosition() {
+        WheelPhysics physics = new SpringPhysics();
+        physics.scroll(0, 40, 400);
+        runToEnd(physics, Float.NaN);
+        assertFinishedAt(physics, 40);
+    }
+
+    @Test
+    public void finalPositionIsRespectedDuringMotion() {
+        WheelPhysics[] engines = {new DecayPhysics(), new SpringPhysics(), new CriticallyDampedPhysics()};
+        for (WheelPhysics physics : engines) {
+            physics.fling(0, FLING_VELOCITY);
+            long time = START_NANOS;
+            for (int i = 0; i < 10; i++) {
+                physics.update(time);
+                time += FRAME_NANOS;
+            }
+            // snap back behind the current position
+            float target = Math.round(physics.getPosition() / 50) * 50 - 50;
+            physics.setFinalPosition(target);
+            assertEquals(target, physics.getFinalPosition(), 0);
+            int frames = 0;
+            while (physics.update(time)) {
+                time += FRAME_NANOS;
+                assertTrue(++frames < MAX_FRAMES);
+            }
+            assertFinishedAt(physics, target);
+        }
+    }
+
+    @Test
+    public void motionStartsAtFirstUpdate() {
+        WheelPhysics physics = new DecayPhysics();
+        physics.fling(100, FLING_VELOCITY);
+        assertTrue(physics.update(START_NANOS * 3));
+        assertEquals(100, physics.getPosition(), 0);
+    }
+
+    @Test
+    public void stoppedPhysicsIsFinished() {
+        WheelPhysics physics = new SpringPhysics();
+        physics.fling(0, FLING_VELOCITY);
+        physics.update(START_NANOS);
+        physics.update(START_NANOS + FRAME_NANOS);
+        physics.stop();
+        assertTrue(physics.isFinished());
+        assertEquals(physics.getPosition(), physics.getFinalPosition(), 0);
+        assertFalse(physics.update(START_NANOS + 2 * FRAME_NANOS));
+    }
+
+    private void assertMonotonicFling(WheelPhysics physics) {
+        physics.fling(0, FLING_VELOCITY);
+        physics.setFinalPosition(SNAPPED_POSITION);
+        assertEquals(SNAPPED_POSITION, physics.getFinalPosition(), 0);
+        runToEnd(physics, 0);
+        assertFinishedAt(physics, SNAPPED_POSITION);
+    }
+
+    /**
+     * Updates physics by frames until it is finished
+     * @param physics the physics
+     * @param tolerance allowed step against the motion, NaN if the motion may turn
+     */
+    private void runToEnd(WheelPhysics physics, float tolerance) {
+        float direction = Math.signum(physics.getFinalPosition() - physics.getPosition());
+        float last = physics.getPosition();
+        long time = START_NANOS;
+        int frames = 0;
+        while (physics.update(time)) {
+            float position = physics.getPosition();
+            if (!Float.isNaN(tolerance)) {
+                assertTrue("position " + position + " after " + last, (position - last) * direction >= -tolerance);
+            }
+            last = position;
+            time += FRAME_NANOS;
+            assertTrue(++frames < MAX_FRAMES);
+        }
+    }
+
+    private void assertFinishedAt(WheelPhysics physics, float position) {
+        assertTrue(physics.isFinished());
+        assertEquals(position, physics.getPosition(), 0);
+        assertEquals(position, physics.getFinalPosition(), 0);
+        assertEquals(0, physics.getVelocity(), 0);
+    }
+}
@@ -0,0 +1,74 @@
+package tw.g35g.widget.adapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.ContextWrapper;
+import android.database.DataSetObserver;
+
+/**
+ * Checks what the text style setters change in the adapter and its text cache
+ */
+public class AbstractWheelTextAdapterTest {
+
+    private IntArrayWheelAdapter adapter;
+    private int dataChanges;
+    private int styleChanges;
+    private boolean lastSizeChanged;
+
+    @Before
+    public void setUp() {
+        adapter = new IntArrayWheelAdapter(new ContextWrapper(null), new int[] {1, 2, 3});
+        adapter.setTextCacheSize(8);
+        adapter.registerDataSetObserver(new DataSetObserver() {
+            @Override
+            public void onChanged() {
+                dataChanges++;
+            }
+
+            @Override
+            public void onInvalidated() {
+                dataChanges++;
+            }
+        });
+        adapter.addTextStyleListener(new AbstractWheelTextAdapter.OnTextStyleChangedListener() {
+            @Override
+            public void onTextStyleChanged(AbstractWheelTextAdapter adapter, boolean isSizeChanged) {
+                styleChanges++;
+                lastSizeChanged = isSizeChanged;
+            }
+        });
+        adapter.getItemTextAt(0);
+        adapter.getTextCache().putWidth(0, adapter.getTextSizeVersion(), 10);
+    }
+
+    @Test
+    public void colorChangeKeepsCacheAndData() {
+        int sizeVersion = adapter.getTextSizeVersion();
+        adapter.setTextColor(0xFFFF0000);
+
+        assertEquals(1, styleChanges);
+        assertFalse(lastSizeChanged);
+        assertEquals(0, dataChanges);
+        assertEquals(sizeVersion, adapter.getTextSizeVersion());
+        assertEquals(1, adapter.getTextCache().size());
+        assertEquals(10, adapter.getTextCache().getWidth(0, adapter.getTextSizeVersion()), 0);
+    }
+
+    @Test
+    public void sizeChangeDropsWidthsAndKeepsTexts() {
+        int styleVersion = adapter.getTextStyleVersion();
+        adapter.setTextSize(30);
+
+        assertEquals(1, styleChanges);
+        assertTrue(lastSizeChanged);
+        assertEquals(0, dataChanges);
+        assertEquals(styleVersion + 1, adapter.getTextStyleVersion());
+        assertEquals(1, adapter.getTextCache().size());
+        assertTrue(Float.isNaN(adapter.getTextCache().getWidth(0, adapter.getTextSizeVersion())));
+    }
+}
@@ -0,0 +1,75 @@
+package tw.g35g.widget.adapters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import android.content.ContextWrapper;
+
+/**
+ * Compares texts built by DoubleArrayWheelAdapter with String.format()
+ */
+public class DoubleArrayWheelAdapterTest {
+
+    private static final double[] EDGE_VALUES = {
+        0.0, -0.0, 0.5, 1.5, 2.5, -2.5, 0.045, 0.125, 1.005, 1.115, -1.115, 1.125, 2.675,
+        0.994999, 0.995, 9.995, 99.995, 1.0000000005, 123456.785, 1e-10, -1e-10,
+        4503599627.37049, 99999.99999, 1e14
+    };
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.US);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void textsOfEdgeValuesMatchFormat() {
+        for (int decimals = 0; decimals <= DoubleArrayWheelAdapter.MAX_DECIMALS; decimals++) {
+            assertTexts(EDGE_VALUES, decimals);
+        }
+    }
+
+    @Test
+    public void textsOfDecimalStepsMatchFormat() {
+        // values like 0.005, 0.015 ... are the ties in decimal, but not in binary
+        double[] values = new double[20000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (i - values.length / 2) / 1000.0 + 0.0005;
+        }
+        for (int decimals = 0; decimals <= 4; decimals++) {
+            assertTexts(values, decimals);
+        }
+    }
+
+    @Test
+    public void textsAreBuiltWithoutFormat() {
+        double[] values = {1.25, 3.14159, -42.0};
+        DoubleArrayWheelAdapter adapter = new DoubleArrayWheelAdapter(new ContextWrapper(null), values, 2);
+        char[] buffer = new char[32];
+        for (int i = 0; i < values.length; i++) {
+            assertTrue(adapter.getItemTextChars(i, buffer) >= 0);
+        }
+    }
+
+    private void assertTexts(double[] values, int decimals) {
+        DoubleArrayWheelAdapter adapter = new DoubleArrayWheelAdapter(new ContextWrapper(null), values, decimals);
+        for (int i = 0; i < values.length; i++) {
+            String expected = String.format("%." + decimals + "f", values[i]);
+            assertEquals(values[i] + " with " + decimals + " decimals",
+                    expected, adapter.getItemText(i).toString());
+        }
+    }
+}